@@ -11,6 +11,7 @@ import Login from './components/Login';
 import Register from './components/Register';
 import Notifications from './components/Notifications';
 import API_BASE_URL from './config/api';
+import { openNotificationStream } from './utils/notificationStream';
 import './components/DrainStyles.css';
 
 function Navigation() {
@@ -19,30 +20,12 @@ function Navigation() {
   const [unreadCount, setUnreadCount] = React.useState(0);
 
   React.useEffect(() => {
-    const fetchUnreadCount = async () => {
-      if (!isAdmin()) return;
-      
-      try {
-        const token = getToken();
-        const response = await fetch(`${API_BASE_URL}/api/notifications/unread-count`, {
-          headers: {
-            'Authorization': `Bearer ${token}`
-          }
-        });
-        if (response.ok) {
-          const data = await response.json();
-          setUnreadCount(data.count);
-        }
-      } catch (error) {
-        console.error('Error fetching unread count:', error);
-      }
-    };
-
     if (user && isAdmin()) {
-      fetchUnreadCount();
-      // Poll every 30 seconds for new notifications
-      const interval = setInterval(fetchUnreadCount, 30000);
-      return () => clearInterval(interval);
+      // The stream sends the current count on connect, then pushes changes
+      return openNotificationStream(getToken, {
+        'unread-count': (data) => setUnreadCount(data.count),
+        'unread-delta': (data) => setUnreadCount((count) => Math.max(0, count + data.delta))
+      });
     }
   }, [user, isAdmin, getToken]);
 
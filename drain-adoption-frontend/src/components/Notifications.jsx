@@ -3,6 +3,7 @@ import { useAuth } from '../context/AuthContext';
 import { useNavigate } from 'react-router-dom';
 import { toast } from 'react-toastify';
 import API_BASE_URL from '../config/api';
+import { openNotificationStream } from '../utils/notificationStream';
 import './Notifications.css';
 
 const Notifications = () => {
@@ -17,6 +18,13 @@ const Notifications = () => {
       return;
     }
     fetchNotifications();
+    // New notifications arrive over the stream instead of by reloading the list
+    return openNotificationStream(getToken, {
+      notification: (notification) => setNotifications((current) =>
+        current.some(n => n.id === notification.id) ? current : [notification, ...current]
+      ),
+      resync: () => fetchNotifications()
+    });
   }, []);
 
   const fetchNotifications = async () => {
@@ -57,7 +65,7 @@ const Notifications = () => {
 
       if (response.ok) {
         // Update local state
-        setNotifications(notifications.map(n => 
+        setNotifications((current) => current.map(n => 
           n.id === notificationId ? { ...n, read: true } : n
         ));
       }
@@ -81,7 +89,7 @@ const Notifications = () => {
 
       if (response.ok) {
         toast.success('All notifications marked as read');
-        setNotifications(notifications.map(n => ({ ...n, read: true })));
+        setNotifications((current) => current.map(n => ({ ...n, read: true })));
       }
     } catch (error) {
       console.error('Error marking all as read:', error);
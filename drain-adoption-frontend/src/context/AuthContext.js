@@ -18,6 +18,16 @@ export const AuthProvider = ({ children }) => {
     setLoading(false);
   }, []);
 
+  // Auth errors are plain text, except structured ones such as 503 when sign-ins are throttled
+  const readError = async (response) => {
+    const text = await response.text();
+    try {
+      return JSON.parse(text).message || text;
+    } catch {
+      return text;
+    }
+  };
+
   const login = async (email, password) => {
     const response = await fetch(`${API_BASE_URL}/api/auth/login`, {
       method: 'POST',
@@ -28,8 +38,7 @@ export const AuthProvider = ({ children }) => {
     });
 
     if (!response.ok) {
-      const error = await response.text();
-      throw new Error(error || 'Login failed');
+      throw new Error(await readError(response) || 'Login failed');
     }
 
     const data = await response.json();
@@ -62,8 +71,7 @@ export const AuthProvider = ({ children }) => {
     });
 
     if (!response.ok) {
-      const error = await response.text();
-      throw new Error(error || 'Registration failed');
+      throw new Error(await readError(response) || 'Registration failed');
     }
 
     const data = await response.json();
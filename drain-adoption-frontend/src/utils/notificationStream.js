@@ -0,0 +1,69 @@
+import API_BASE_URL from '../config/api';
+
+const RECONNECT_DELAY_MS = 3000;
+
+/**
+ * Subscribes to the admin notification stream (Server-Sent Events).
+ *
+ * EventSource cannot send an Authorization header, so the stream is read with
+ * fetch. The connection is reopened after it drops, resuming from the last
+ * notification id seen.
+ *
+ * @param {() => string} getToken - returns the current JWT
+ * @param {Object<string, (data: any) => void>} handlers - keyed by event name:
+ *   notification, unread-count, unread-delta, resync
+ * @returns {() => void} closes the stream
+ */
+export const openNotificationStream = (getToken, handlers) => {
+  const controller = new AbortController();
+  let lastEventId = null;
+
+  const dispatch = (frame) => {
+    let event = 'message';
+    let id = null;
+    const data = [];
+    frame.split('\n').forEach((line) => {
+      if (line.startsWith('event:')) event = line.slice(6).trim();
+      else if (line.startsWith('id:')) id = line.slice(3).trim();
+      else if (line.startsWith('data:')) data.push(line.slice(5));
+    });
+    if (id !== null) lastEventId = id;
+    if (data.length === 0 || !handlers[event]) return;
+    handlers[event](JSON.parse(data.join('\n')));
+  };
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const headers = { 'Authorization': `Bearer ${getToken()}` };
+        if (lastEventId !== null) headers['Last-Event-ID'] = lastEventId;
+        const response = await fetch(`${API_BASE_URL}/api/notifications/stream`, {
+          headers,
+          signal: controller.signal
+        });
+        if (!response.ok || !response.body) throw new Error(`Stream failed: ${response.status}`);
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        for (;;) {
+          const { done, value } = await reader.read();
+          if (done) break;
+          buffer += decoder.decode(value, { stream: true });
+          let end;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            dispatch(buffer.slice(0, end));
+            buffer = buffer.slice(end + 2);
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) return;
+        console.error('Notification stream error:', error);
+      }
+      await new Promise((resolve) => setTimeout(resolve, RECONNECT_DELAY_MS));
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+};
@@ -0,0 +1,76 @@
+package com.example.drainadoption.benchmark;
+
+import com.example.drainadoption.dto.DrainDTO;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.User;
+import com.example.drainadoption.security.JwtUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic sample data shaped like the production catalogue: drains
+ * scattered over a city, about one in five adopted.
+ */
+final class BenchmarkData {
+
+    private static final String JWT_SECRET = "mySecretKeyForDrainAdoptionApp123456789012345678901234567890";
+    private static final long JWT_EXPIRATION = 86_400_000L;
+
+    private BenchmarkData() {
+    }
+
+    static Drain drain(long id) {
+        Random random = new Random(id);
+        Drain drain = new Drain();
+        drain.setId(id);
+        drain.setName("Storm Drain " + id + " at Maple Street");
+        drain.setImageUrl("https://example.com/images/drain" + id + ".jpg");
+        drain.setLatitude(47.5 + random.nextDouble() * 0.25);
+        drain.setLongitude(-122.45 + random.nextDouble() * 0.2);
+        drain.setVersion(random.nextInt(5) + 0L);
+        return drain;
+    }
+
+    static User adopter(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Adopter " + id);
+        user.setEmail("adopter" + id + "@example.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0");
+        user.setRole(User.UserRole.ADOPTER);
+        return user;
+    }
+
+    static List<Drain> drains(int count) {
+        List<Drain> drains = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Drain drain = drain(id);
+            if (id % 5 == 0) {
+                drain.setAdoptedByUser(adopter(id));
+            }
+            drains.add(drain);
+        }
+        return drains;
+    }
+
+    static List<DrainDTO> drainDTOs(int count) {
+        return drains(count).stream().map(DrainDTO::fromEntity).toList();
+    }
+
+    // Configured with the application's default secret and expiry, as Spring would
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", JWT_EXPIRATION);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    // The same configuration for the baseline; each accepts the other's tokens
+    static LegacyJwtUtil legacyJwtUtil() {
+        return new LegacyJwtUtil(JWT_SECRET, JWT_EXPIRATION);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.drainadoption.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.example.drainadoption.dto.DrainDTO;
+import com.example.drainadoption.dto.UserDTO;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping, run for every drain in list and export responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private Drain adoptedDrain;
+    private User adopter;
+    private List<Drain> catalogue;
+
+    @Setup
+    public void setUp() {
+        adopter = BenchmarkData.adopter(1L);
+        adoptedDrain = BenchmarkData.drain(1L);
+        adoptedDrain.setAdoptedByUser(adopter);
+        adopter.setAdoptedDrain(adoptedDrain);
+        catalogue = BenchmarkData.drains(1000);
+    }
+
+    @Benchmark
+    public DrainDTO drainFromEntity() {
+        return DrainDTO.fromEntity(adoptedDrain);
+    }
+
+    @Benchmark
+    public UserDTO userFromEntity() {
+        return UserDTO.fromEntity(adopter);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<DrainDTO> thousandDrainsFromEntities() {
+        List<DrainDTO> dtos = new ArrayList<>(catalogue.size());
+        for (Drain drain : catalogue) {
+            dtos.add(DrainDTO.fromEntity(drain));
+        }
+        return dtos;
+    }
+}
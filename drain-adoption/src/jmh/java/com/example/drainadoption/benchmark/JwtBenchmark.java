@@ -0,0 +1,71 @@
+package com.example.drainadoption.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.example.drainadoption.security.JwtUtil;
+import com.example.drainadoption.security.VerifiedToken;
+import com.example.drainadoption.security.VerifiedTokenCache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification. {@code fourParseBaseline} repeats what the
+ * authentication filter did per request before tokens were verified once and
+ * cached, through {@link LegacyJwtUtil}, which builds the key and parser on
+ * every call: extract the subject, validate (subject and expiry, two more
+ * parses) and extract the role.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private LegacyJwtUtil legacyJwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkData.jwtUtil();
+        legacyJwtUtil = BenchmarkData.legacyJwtUtil();
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, 10_000);
+        token = jwtUtil.generateToken("adopter1@example.com", 1L, "ADOPTER");
+        verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("adopter1@example.com", 1L, "ADOPTER");
+    }
+
+    @Benchmark
+    public String fourParseBaseline() {
+        String email = legacyJwtUtil.extractEmail(token);
+        if (!legacyJwtUtil.validateToken(token, email)) {
+            return null;
+        }
+        return legacyJwtUtil.extractRole(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyOnce() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return verifiedTokenCache.verify(token);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.drainadoption.loadtest;
+
+import java.util.List;
+
+/**
+ * What the seeder created and the workloads draw from.
+ *
+ * @param drainIds every drain in the catalogue
+ * @param hotDrainIds unadopted drains the contention scenario fights over
+ * @param commenters adopters, each holding one drain they can comment on
+ * @param cyclers users without a drain, one per client, that adopt and get released
+ */
+record Dataset(String adminToken,
+               long[] drainIds,
+               long[] hotDrainIds,
+               List<Account> commenters,
+               List<Account> cyclers) {
+
+    /** A registered user; {@code drainId} is their adopted drain, if any. */
+    record Account(long userId, String token, Long drainId) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.drainadoption.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and outcomes of one endpoint, recorded by a single client thread
+ * and merged after the run. Every sample is kept, so percentiles are exact.
+ */
+final class LatencySamples {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private long clientErrors;
+    private long serverErrors;
+    private long shed;
+    private long ioErrors;
+
+    void record(long latencyNanos, int status) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+        if (status == 503) {
+            shed++;
+        } else if (status >= 500) {
+            serverErrors++;
+        } else if (status >= 400) {
+            clientErrors++;
+        }
+    }
+
+    // A request that got no response at all; it has no meaningful latency
+    void recordIoError() {
+        ioErrors++;
+    }
+
+    void addAll(LatencySamples other) {
+        if (count + other.count > nanos.length) {
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+        }
+        System.arraycopy(other.nanos, 0, nanos, count, other.count);
+        count += other.count;
+        clientErrors += other.clientErrors;
+        serverErrors += other.serverErrors;
+        shed += other.shed;
+        ioErrors += other.ioErrors;
+    }
+
+    long requests() {
+        return count + ioErrors;
+    }
+
+    long clientErrors() {
+        return clientErrors;
+    }
+
+    long serverErrors() {
+        return serverErrors;
+    }
+
+    long shed() {
+        return shed;
+    }
+
+    long ioErrors() {
+        return ioErrors;
+    }
+
+    // 4xx answers (adoption conflicts, say) are expected traffic, not errors
+    double errorRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) (serverErrors + shed + ioErrors) / requests;
+    }
+
+    /** Latency percentiles in milliseconds, in the order of {@code quantiles}. */
+    double[] percentilesMillis(double... quantiles) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        double[] millis = new double[quantiles.length];
+        for (int i = 0; i < quantiles.length; i++) {
+            if (count > 0) {
+                int rank = (int) Math.ceil(quantiles[i] * count);
+                millis[i] = sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+            }
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.drainadoption.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thin JSON-over-HTTP client for the application under test. Calls made
+ * through {@link #call} are timed into the calling client's samples once the
+ * measurement window has opened; seeding uses the untimed helpers.
+ */
+final class LoadClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+
+    LoadClient(int port, ObjectMapper objectMapper) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+        this.objectMapper = objectMapper;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    /** Samples of one client thread, keyed by endpoint. */
+    static final class Recorder {
+
+        private final Map<String, LatencySamples> samples = new HashMap<>();
+        private final long measureFromNanos;
+
+        Recorder(long measureFromNanos) {
+            this.measureFromNanos = measureFromNanos;
+        }
+
+        Map<String, LatencySamples> samples() {
+            return samples;
+        }
+
+        boolean measuring() {
+            return System.nanoTime() >= measureFromNanos;
+        }
+
+        private LatencySamples of(String endpoint) {
+            return samples.computeIfAbsent(endpoint, e -> new LatencySamples());
+        }
+    }
+
+    /**
+     * Sends {@code request} and records it under {@code endpoint}. Returns the
+     * response, or null when the request failed without one.
+     */
+    HttpResponse<String> call(Recorder recorder, String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        boolean measured = start >= recorder.measureFromNanos;
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (measured) {
+                recorder.of(endpoint).record(System.nanoTime() - start, response.statusCode());
+            }
+            return response;
+        } catch (IOException e) {
+            if (measured) {
+                recorder.of(endpoint).recordIoError();
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    HttpRequest.Builder get(String path, String token) {
+        return request(path, token).GET();
+    }
+
+    HttpRequest.Builder post(String path, String token, Object body) {
+        try {
+            return request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            body == null ? "" : objectMapper.writeValueAsString(body)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    // Untimed call for seeding; anything but the expected status aborts the run
+    JsonNode send(HttpRequest.Builder request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(String.format("%s %s answered %d, expected %d: %s",
+                    response.request().method(), response.request().uri(), response.statusCode(), expectedStatus,
+                    response.body()));
+        }
+        return response.body().isEmpty() ? null : objectMapper.readTree(response.body());
+    }
+
+    InputStream stream(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = http.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IllegalStateException(response.request().uri() + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
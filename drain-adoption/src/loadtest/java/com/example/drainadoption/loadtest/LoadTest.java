@@ -0,0 +1,150 @@
+package com.example.drainadoption.loadtest;
+
+import com.example.drainadoption.DrainAdoptionApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the application in-process on an in-memory H2 database in PostgreSQL
+ * mode, seeds it over HTTP and drives closed-loop clients against it for a
+ * warmup and a measured window, once per client count in {@code --clients},
+ * for each request thread model in {@code --threads}.
+ * Exits with status 1 when the overall error rate of any run exceeds
+ * {@code --max-error-rate}, so a CI job can gate on it.
+ *
+ * Run with {@code mvn -P loadtest verify -Dloadtest.args="..."}; see the README
+ * for the options and scenarios.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        validate(options);
+
+        List<LoadTestReport> reports = new ArrayList<>();
+        int status = 0;
+        for (LoadTestOptions.Threads threads : options.threads()) {
+            // A fresh application and database per thread model, so they compete on equal terms
+            try (ConfigurableApplicationContext context = start(options, threads)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                ObjectMapper objectMapper = new ObjectMapper();
+                LoadClient client = new LoadClient(port, objectMapper);
+
+                long seedStart = System.nanoTime();
+                Dataset dataset = new Seeder(client, objectMapper).seed(options);
+                System.out.printf(Locale.ROOT, "Seeded %d drains and %d adopters in %.1fs%n",
+                        dataset.drainIds().length, dataset.commenters().size(),
+                        (System.nanoTime() - seedStart) / 1e9);
+
+                // Every step runs against the same application and data, so the steps differ in load only
+                for (int clients : options.clients()) {
+                    LoadTestReport report = run(options, threads, clients, client, dataset);
+                    report.print(System.out);
+                    reports.add(report);
+                    if (report.errorRate() > options.maxErrorRate()) {
+                        status = 1;
+                        System.out.printf(Locale.ROOT, "Error rate %.2f%% exceeds --max-error-rate %.2f%%%n",
+                                report.errorRate() * 100, options.maxErrorRate() * 100);
+                    }
+                }
+            }
+        }
+        if (reports.size() > 1) {
+            LoadTestReport.printSteps(System.out, reports);
+        }
+        LoadTestReport.write(Path.of(options.result()), reports);
+        System.out.println("Results written to " + options.result());
+        System.exit(status);
+    }
+
+    private static void validate(LoadTestOptions options) {
+        if (options.clients().stream().anyMatch(clients -> clients < 1) || options.durationSeconds() < 1
+                || options.warmupSeconds() < 0) {
+            throw new IllegalArgumentException("--clients and --duration must be positive, --warmup not negative");
+        }
+        if (options.mix().values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        if (options.mix().getOrDefault(Workload.Kind.COMMENT, 0) > 0 && options.adopters() < 1) {
+            throw new IllegalArgumentException("The comment workload needs --adopters of at least 1");
+        }
+        if (options.scenario() == LoadTestOptions.Scenario.CONTENTION && options.hotDrains() < 1) {
+            throw new IllegalArgumentException("The contention scenario needs --hot-drains of at least 1");
+        }
+        if (options.threads().contains(LoadTestOptions.Threads.VIRTUAL) && Runtime.version().feature() < 21) {
+            throw new IllegalArgumentException("--threads=virtual needs Java 21 or newer, running on "
+                    + Runtime.version());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions options, LoadTestOptions.Threads threads) {
+        // Devtools is on the runtime classpath; its restarter would boot the app twice
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + threads.name().toLowerCase(Locale.ROOT)
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                // The migrations are PostgreSQL-specific; Hibernate creates the H2 schema instead
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--server.port=0",
+                "--threads.virtual.enabled=" + (threads == LoadTestOptions.Threads.VIRTUAL),
+                // Cheap hashes keep seeding fast; login cost is measured by the BCrypt benchmark
+                "--auth.bcrypt.strength=4",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        // Given last, so the command line can override any of the above
+        args.addAll(options.applicationArgs());
+        return new SpringApplicationBuilder(DrainAdoptionApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static LoadTestReport run(LoadTestOptions options, LoadTestOptions.Threads threads, int clients,
+                                      LoadClient client, Dataset dataset) throws InterruptedException {
+        long now = System.nanoTime();
+        long measureFrom = now + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+        List<LoadClient.Recorder> recorders = new ArrayList<>();
+        List<Workload> workloads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            LoadClient.Recorder recorder = new LoadClient.Recorder(measureFrom);
+            recorders.add(recorder);
+            workloads.add(new Workload(client, dataset, options, i, recorder, end));
+        }
+
+        System.out.printf(Locale.ROOT, "Running %s with %d clients on %s threads: %ds warmup, %ds measured%n",
+                options.scenario().name().toLowerCase(Locale.ROOT), clients,
+                threads.name().toLowerCase(Locale.ROOT), options.warmupSeconds(),
+                options.durationSeconds());
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        workloads.forEach(executor::execute);
+        executor.shutdown();
+        if (!executor.awaitTermination(options.warmupSeconds() + options.durationSeconds() + 60L, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Clients did not finish within a minute of the run's end");
+        }
+
+        List<Map<String, LatencySamples>> samples = recorders.stream().map(LoadClient.Recorder::samples).toList();
+        Workload.Adoptions adoptions = workloads.stream().map(Workload::adoptions)
+                .reduce(Workload.Adoptions.NONE, Workload.Adoptions::plus);
+        return new LoadTestReport(options, threads, clients, samples, adoptions);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.drainadoption.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of the load test. Options are {@code --name=value}; any
+ * option whose name contains a dot (e.g. {@code --cache.drains.max-size=1000})
+ * is passed to the application under test instead.
+ */
+record LoadTestOptions(
+        Scenario scenario,
+        List<Threads> threads,
+        List<Integer> clients,
+        int warmupSeconds,
+        int durationSeconds,
+        int drains,
+        int adopters,
+        int hotDrains,
+        Map<Workload.Kind, Integer> mix,
+        double maxErrorRate,
+        String result,
+        List<String> applicationArgs) {
+
+    enum Scenario {
+        // Map browsing, adoptions, comments and admin polling together, weighted by --mix
+        MIXED,
+        // Every client races to adopt the same --hot-drains drains
+        CONTENTION
+    }
+
+    enum Threads {
+        // Tomcat's pool of server.tomcat.threads.max platform threads
+        PLATFORM,
+        // One virtual thread per request; needs Java 21
+        VIRTUAL
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (name.contains(".")) {
+                applicationArgs.add(arg);
+            } else {
+                options.put(name, arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        LoadTestOptions parsed = new LoadTestOptions(
+                Scenario.valueOf(options.getOrDefault("scenario", "mixed").toUpperCase()),
+                parseThreads(options.getOrDefault("threads", "platform")),
+                parseClients(options.getOrDefault("clients", "64")),
+                Integer.parseInt(options.getOrDefault("warmup", "10")),
+                Integer.parseInt(options.getOrDefault("duration", "60")),
+                Integer.parseInt(options.getOrDefault("drains", "20000")),
+                Integer.parseInt(options.getOrDefault("adopters", "500")),
+                Integer.parseInt(options.getOrDefault("hot-drains", "1")),
+                parseMix(options.getOrDefault("mix", "browse:70,adopt:10,comment:10,admin:10")),
+                Double.parseDouble(options.getOrDefault("max-error-rate", "0.01")),
+                options.getOrDefault("result", "target/loadtest/loadtest-result.json"),
+                applicationArgs);
+        options.keySet().removeAll(List.of("scenario", "threads", "clients", "warmup", "duration", "drains", "adopters",
+                "hot-drains", "mix", "max-error-rate", "result"));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet());
+        }
+        return parsed;
+    }
+
+    // Most clients of any step; the seeder registers one cycling user per client
+    int maxClients() {
+        return clients.stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    // "platform,virtual" -> one application per thread model, in the order given
+    private static List<Threads> parseThreads(String threads) {
+        List<Threads> models = new ArrayList<>();
+        for (String model : threads.split(",")) {
+            models.add(Threads.valueOf(model.trim().toUpperCase()));
+        }
+        return List.copyOf(models);
+    }
+
+    // "1,16,256" -> one measured run per client count, in the order given
+    private static List<Integer> parseClients(String clients) {
+        List<Integer> steps = new ArrayList<>();
+        for (String step : clients.split(",")) {
+            steps.add(Integer.parseInt(step.trim()));
+        }
+        return List.copyOf(steps);
+    }
+
+    // "browse:70,adopt:10" -> weights per workload; workloads left out get no traffic
+    private static Map<Workload.Kind, Integer> parseMix(String mix) {
+        Map<Workload.Kind, Integer> weights = new HashMap<>();
+        for (String part : mix.split(",")) {
+            String[] weight = part.split(":");
+            weights.put(Workload.Kind.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return weights;
+    }
+}
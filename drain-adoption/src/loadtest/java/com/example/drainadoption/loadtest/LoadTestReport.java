@@ -0,0 +1,125 @@
+package com.example.drainadoption.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint throughput, latency percentiles and error rates of a run,
+ * with the adoption outcomes, printed as a table and written as JSON for
+ * comparing runs.
+ */
+final class LoadTestReport {
+
+    private static final double[] QUANTILES = {0.50, 0.95, 0.99, 0.999};
+
+    record EndpointResult(String endpoint, long requests, double throughput,
+                          double p50Millis, double p95Millis, double p99Millis, double p999Millis,
+                          long clientErrors, long serverErrors, long shed, long ioErrors, double errorRate) {
+    }
+
+    record Result(String scenario, String threads, int clients, int durationSeconds, List<String> applicationArgs,
+                  String javaVersion, long adoptionAttempts, long adoptions, long adoptionConflicts,
+                  double adoptionsPerSecond, double conflictRate,
+                  List<EndpointResult> endpoints, EndpointResult total) {
+    }
+
+    private final Result result;
+
+    LoadTestReport(LoadTestOptions options, LoadTestOptions.Threads threads, int clients,
+                   List<Map<String, LatencySamples>> perClient, Workload.Adoptions adoptions) {
+        Map<String, LatencySamples> merged = new TreeMap<>();
+        LatencySamples all = new LatencySamples();
+        for (Map<String, LatencySamples> samples : perClient) {
+            samples.forEach((endpoint, endpointSamples) -> {
+                merged.computeIfAbsent(endpoint, e -> new LatencySamples()).addAll(endpointSamples);
+                all.addAll(endpointSamples);
+            });
+        }
+        List<EndpointResult> endpoints = new ArrayList<>();
+        merged.forEach((endpoint, samples) -> endpoints.add(summarize(endpoint, samples, options)));
+        // Conflicts are attempts another adopter won; other failures count as errors instead
+        double conflictRate = adoptions.attempts() == 0 ? 0 : (double) adoptions.conflicts() / adoptions.attempts();
+        this.result = new Result(options.scenario().name().toLowerCase(Locale.ROOT),
+                threads.name().toLowerCase(Locale.ROOT), clients,
+                options.durationSeconds(), options.applicationArgs(), Runtime.version().toString(),
+                adoptions.attempts(), adoptions.succeeded(), adoptions.conflicts(),
+                (double) adoptions.succeeded() / options.durationSeconds(), conflictRate,
+                endpoints, summarize("all", all, options));
+    }
+
+    double errorRate() {
+        return result.total().errorRate();
+    }
+
+    void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%nScenario %s, %d clients on %s threads, %ds measured, Java %s %s%n",
+                result.scenario(), result.clients(), result.threads(), result.durationSeconds(), result.javaVersion(),
+                result.applicationArgs());
+        String row = "%-38s %9s %9s %9s %9s %9s %9s %7s %7s %7s %7s %8s%n";
+        out.printf(Locale.ROOT, row, "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms",
+                "4xx", "5xx", "shed", "io", "errors");
+        for (EndpointResult endpoint : result.endpoints()) {
+            print(out, row, endpoint);
+        }
+        print(out, row, result.total());
+        out.printf(Locale.ROOT, "Adoptions: %d of %d attempts (%.1f/s), %d conflicts (%.2f%%)%n",
+                result.adoptions(), result.adoptionAttempts(), result.adoptionsPerSecond(),
+                result.adoptionConflicts(), result.conflictRate() * 100);
+    }
+
+    /** One line per thread model and client count, to read how a sweep scales. */
+    static void printSteps(PrintStream out, List<LoadTestReport> reports) {
+        String row = "%9s %9s %9s %12s %10s %9s %9s%n";
+        out.printf(Locale.ROOT, "%n" + row, "threads", "clients", "req/s", "adoptions/s", "conflicts", "p99 ms",
+                "errors");
+        for (LoadTestReport report : reports) {
+            Result step = report.result;
+            out.printf(Locale.ROOT, row, step.threads(), step.clients(),
+                    String.format(Locale.ROOT, "%.1f", step.total().throughput()),
+                    String.format(Locale.ROOT, "%.1f", step.adoptionsPerSecond()),
+                    String.format(Locale.ROOT, "%.2f%%", step.conflictRate() * 100),
+                    millis(step.total().p99Millis()),
+                    String.format(Locale.ROOT, "%.2f%%", step.total().errorRate() * 100));
+        }
+    }
+
+    // One result per thread model and client count, in the order they ran
+    static void write(Path path, List<LoadTestReport> reports) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(path.toFile(), reports.stream().map(report -> report.result).toList());
+    }
+
+    private static void print(PrintStream out, String row, EndpointResult endpoint) {
+        out.printf(Locale.ROOT, row, endpoint.endpoint(), endpoint.requests(),
+                String.format(Locale.ROOT, "%.1f", endpoint.throughput()),
+                millis(endpoint.p50Millis()), millis(endpoint.p95Millis()), millis(endpoint.p99Millis()),
+                millis(endpoint.p999Millis()), endpoint.clientErrors(), endpoint.serverErrors(), endpoint.shed(),
+                endpoint.ioErrors(), String.format(Locale.ROOT, "%.2f%%", endpoint.errorRate() * 100));
+    }
+
+    private static String millis(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static EndpointResult summarize(String endpoint, LatencySamples samples, LoadTestOptions options) {
+        double[] percentiles = samples.percentilesMillis(QUANTILES);
+        return new EndpointResult(endpoint, samples.requests(),
+                (double) samples.requests() / options.durationSeconds(),
+                percentiles[0], percentiles[1], percentiles[2], percentiles[3],
+                samples.clientErrors(), samples.serverErrors(), samples.shed(), samples.ioErrors(),
+                samples.errorRate());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.drainadoption.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeds the application through its public API, so the data goes through the
+ * same caches, indexes and listeners as in production: an admin, a city's
+ * worth of drains by bulk import, and adopters who each hold a drain and have
+ * commented on it.
+ */
+final class Seeder {
+
+    // Roughly Seattle; map viewports are drawn from the same box
+    static final double MIN_LAT = 47.50;
+    static final double MAX_LAT = 47.75;
+    static final double MIN_LON = -122.45;
+    static final double MAX_LON = -122.25;
+
+    private static final String PASSWORD = "load-test-password";
+    private static final int SEED_THREADS = 16;
+    private static final int COMMENTS_PER_ADOPTER = 2;
+
+    private final LoadClient client;
+    private final ObjectMapper objectMapper;
+    private final Random random = new Random(42);
+
+    Seeder(LoadClient client, ObjectMapper objectMapper) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+    }
+
+    Dataset seed(LoadTestOptions options) throws IOException, InterruptedException {
+        String adminToken = createAdmin();
+        importDrains(adminToken, options.drains());
+        long[] drainIds = exportDrainIds();
+        if (drainIds.length < options.adopters() + options.hotDrains()) {
+            throw new IllegalArgumentException("Need at least --adopters plus --hot-drains drains");
+        }
+
+        // Shuffled once: the first ids stay free for contention, the next go to the adopters
+        long[] shuffled = drainIds.clone();
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        long[] hotDrainIds = Arrays.copyOf(shuffled, options.hotDrains());
+
+        List<Callable<Dataset.Account>> commenters = new ArrayList<>();
+        for (int i = 0; i < options.adopters(); i++) {
+            int n = i;
+            long drainId = shuffled[options.hotDrains() + i];
+            commenters.add(() -> adoptAndComment(register("adopter", n), drainId));
+        }
+        List<Callable<Dataset.Account>> cyclers = new ArrayList<>();
+        for (int i = 0; i < options.maxClients(); i++) {
+            int n = i;
+            cyclers.add(() -> register("cycler", n));
+        }
+        return new Dataset(adminToken, drainIds, hotDrainIds, runAll(commenters), runAll(cyclers));
+    }
+
+    private String createAdmin() throws IOException, InterruptedException {
+        Map<String, String> admin = Map.of("name", "Load Test Admin", "email", "admin@loadtest.local",
+                "password", PASSWORD);
+        client.send(client.post("/api/admin/create-first-admin", null, admin), 201);
+        return client.send(client.post("/api/auth/login", null,
+                Map.of("email", admin.get("email"), "password", PASSWORD)), 200).get("token").asText();
+    }
+
+    private void importDrains(String adminToken, int count) throws IOException, InterruptedException {
+        StringBuilder csv = new StringBuilder("name,latitude,longitude\n");
+        for (int i = 0; i < count; i++) {
+            csv.append("Drain ").append(i + 1).append(',')
+                    .append(MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT)).append(',')
+                    .append(MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON)).append('\n');
+        }
+        JsonNode result = client.send(client.request("/api/drains/imports?format=CSV", adminToken)
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString())), 200);
+        if (result.get("inserted").asLong() != count) {
+            throw new IllegalStateException("Drain import inserted " + result.get("inserted") + " of " + count);
+        }
+    }
+
+    private long[] exportDrainIds() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(
+                client.stream(client.get("/api/drains/export?format=NDJSON", null)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (!line.isBlank()) {
+                    ids.add(objectMapper.readTree(line).get("id").asLong());
+                }
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private Dataset.Account register(String kind, int n) throws IOException, InterruptedException {
+        JsonNode login = client.send(client.post("/api/auth/register", null, Map.of(
+                "name", kind + " " + n,
+                "email", kind + n + "@loadtest.local",
+                "password", PASSWORD)), 201);
+        return new Dataset.Account(login.get("userId").asLong(), login.get("token").asText(), null);
+    }
+
+    private Dataset.Account adoptAndComment(Dataset.Account user, long drainId)
+            throws IOException, InterruptedException {
+        client.send(client.post("/api/drains/" + drainId + "/adopt?userId=" + user.userId(), user.token(), null),
+                200);
+        for (int i = 0; i < COMMENTS_PER_ADOPTER; i++) {
+            client.send(client.post("/api/drains/" + drainId + "/comments?userId=" + user.userId(), user.token(),
+                    Map.of("text", "Cleared leaves, visit " + (i + 1))), 201);
+        }
+        return new Dataset.Account(user.userId(), user.token(), drainId);
+    }
+
+    private static <T> List<T> runAll(List<Callable<T>> tasks) throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Seeding failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
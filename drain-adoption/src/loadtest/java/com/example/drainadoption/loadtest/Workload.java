@@ -0,0 +1,150 @@
+package com.example.drainadoption.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * One closed-loop client: it picks a workload by the {@code --mix} weights,
+ * runs it to completion and immediately picks the next, until the run ends.
+ */
+final class Workload implements Runnable {
+
+    enum Kind {
+        // Pan the map: drains in a viewport, clusters for a wider one, one drain's detail
+        BROWSE,
+        // A user without a drain adopts one; an admin releases it again on success
+        ADOPT,
+        // An adopter posts a comment on their drain
+        COMMENT,
+        // An admin polls the unread count and the latest notifications
+        ADMIN,
+        // The unpaged drain and user lists; not in the default mix
+        LIST
+    }
+
+    private final LoadClient client;
+    private final Dataset dataset;
+    private final LoadTestOptions options;
+    private final Dataset.Account cycler;
+    private final LoadClient.Recorder recorder;
+    private final long endNanos;
+    private final Random random;
+    private final Kind[] weightedKinds;
+    private long adoptionAttempts;
+    private long adoptions;
+    private long adoptionConflicts;
+
+    /** Measured adoption attempts, and how many were won and lost to another adopter. */
+    record Adoptions(long attempts, long succeeded, long conflicts) {
+
+        static final Adoptions NONE = new Adoptions(0, 0, 0);
+
+        Adoptions plus(Adoptions other) {
+            return new Adoptions(attempts + other.attempts, succeeded + other.succeeded,
+                    conflicts + other.conflicts);
+        }
+    }
+
+    Workload(LoadClient client, Dataset dataset, LoadTestOptions options, int clientIndex,
+             LoadClient.Recorder recorder, long endNanos) {
+        this.client = client;
+        this.dataset = dataset;
+        this.options = options;
+        this.cycler = dataset.cyclers().get(clientIndex);
+        this.recorder = recorder;
+        this.endNanos = endNanos;
+        this.random = new Random(clientIndex);
+        this.weightedKinds = weightedKinds(options);
+    }
+
+    Adoptions adoptions() {
+        return new Adoptions(adoptionAttempts, adoptions, adoptionConflicts);
+    }
+
+    @Override
+    public void run() {
+        while (System.nanoTime() < endNanos && !Thread.currentThread().isInterrupted()) {
+            switch (weightedKinds[random.nextInt(weightedKinds.length)]) {
+                case BROWSE -> browse();
+                case ADOPT -> adopt();
+                case COMMENT -> comment();
+                case ADMIN -> pollNotifications();
+                case LIST -> listAll();
+            }
+        }
+    }
+
+    private void browse() {
+        double span = 0.005 + random.nextDouble() * 0.025;
+        client.call(recorder, "GET /api/drains?bbox", client.get("/api/drains?bbox=" + viewport(span), null)
+                .build());
+        client.call(recorder, "GET /api/drains/clusters", client.get("/api/drains/clusters?zoom="
+                + (11 + random.nextInt(4)) + "&bbox=" + viewport(span * 4), null).build());
+        client.call(recorder, "GET /api/drains/{id}", client.get("/api/drains/" + randomDrain(), null).build());
+    }
+
+    private void adopt() {
+        long drainId = options.scenario() == LoadTestOptions.Scenario.CONTENTION
+                ? dataset.hotDrainIds()[random.nextInt(dataset.hotDrainIds().length)]
+                : randomDrain();
+        HttpResponse<String> adopted = client.call(recorder, "POST /api/drains/{id}/adopt", client.post(
+                "/api/drains/" + drainId + "/adopt?userId=" + cycler.userId(), cycler.token(), null).build());
+        boolean measured = recorder.measuring();
+        if (measured) {
+            adoptionAttempts++;
+            if (adopted != null && adopted.statusCode() == 409) {
+                adoptionConflicts++;
+            }
+        }
+        if (adopted != null && adopted.statusCode() == 200) {
+            if (measured) {
+                adoptions++;
+            }
+            client.call(recorder, "POST /api/drains/{id}/reset-adoption", client.post(
+                    "/api/drains/" + drainId + "/reset-adoption", dataset.adminToken(), null).build());
+        }
+    }
+
+    private void comment() {
+        Dataset.Account adopter = dataset.commenters().get(random.nextInt(dataset.commenters().size()));
+        client.call(recorder, "POST /api/drains/{id}/comments", client.post(
+                "/api/drains/" + adopter.drainId() + "/comments?userId=" + adopter.userId(), adopter.token(),
+                Map.of("text", "Grate cleared at " + System.currentTimeMillis())).build());
+    }
+
+    private void pollNotifications() {
+        client.call(recorder, "GET /api/notifications/unread-count",
+                client.get("/api/notifications/unread-count", dataset.adminToken()).build());
+        client.call(recorder, "GET /api/notifications?limit",
+                client.get("/api/notifications?limit=50", dataset.adminToken()).build());
+    }
+
+    private void listAll() {
+        client.call(recorder, "GET /api/drains", client.get("/api/drains", null).build());
+        client.call(recorder, "GET /api/users", client.get("/api/users", dataset.adminToken()).build());
+    }
+
+    private long randomDrain() {
+        return dataset.drainIds()[random.nextInt(dataset.drainIds().length)];
+    }
+
+    // "minLat,minLon,maxLat,maxLon" of a square viewport inside the seeded area
+    private String viewport(double span) {
+        double minLat = Seeder.MIN_LAT + random.nextDouble() * Math.max(0, Seeder.MAX_LAT - Seeder.MIN_LAT - span);
+        double minLon = Seeder.MIN_LON + random.nextDouble() * Math.max(0, Seeder.MAX_LON - Seeder.MIN_LON - span);
+        return String.format(Locale.ROOT, "%.6f,%.6f,%.6f,%.6f", minLat, minLon, minLat + span, minLon + span);
+    }
+
+    // Each kind repeated by its weight, so one random index picks by the mix
+    private static Kind[] weightedKinds(LoadTestOptions options) {
+        if (options.scenario() == LoadTestOptions.Scenario.CONTENTION) {
+            return new Kind[] {Kind.ADOPT};
+        }
+        return options.mix().entrySet().stream()
+                .flatMap(weight -> Stream.generate(weight::getKey).limit(weight.getValue()))
+                .toArray(Kind[]::new);
+    }
+}
@@ -4,10 +4,12 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import com.example.drainadoption.model.Drain;
 import com.example.drainadoption.repository.DrainRepository;
 
 @SpringBootApplication
+@EnableScheduling
 public class DrainAdoptionApplication {
 
     public static void main(String[] args) {
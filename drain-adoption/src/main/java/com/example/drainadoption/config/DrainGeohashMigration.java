@@ -0,0 +1,72 @@
+package com.example.drainadoption.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.model.Geohash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * V4: adds {@code drains.geohash} and fills it in for the existing drains.
+ * Written in Java so existing rows get exactly the values {@link Geohash}
+ * computes for new ones; V5 then indexes the column.
+ */
+@Component
+public class DrainGeohashMigration implements JavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("4");
+    }
+
+    @Override
+    public String getDescription() {
+        return "drain geohash";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("alter table drains add column if not exists geohash bigint");
+        }
+
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement("update drains set geohash = ? where id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rows = select.executeQuery("select id, latitude, longitude from drains " +
+                    "where geohash is null and latitude is not null and longitude is not null")) {
+                int pending = 0;
+                while (rows.next()) {
+                    update.setLong(1, Geohash.encode(rows.getDouble(2), rows.getDouble(3)));
+                    update.setLong(2, rows.getLong(1));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.drainadoption.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Schema changes are versioned migrations under {@code db/migration}, plus
+ * {@code JavaMigration} beans such as {@link DrainGeohashMigration}, applied
+ * by Flyway on startup before the JPA layer comes up.
+ *
+ * A database whose tables Hibernate created before the migrations existed has
+ * no migration history; it is recorded as being at V1, the baseline schema,
+ * and the later migrations bring it up to date. An empty database runs them
+ * all.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer baselineExistingSchema() {
+        return configuration -> configuration
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .baselineDescription("Schema created by Hibernate")
+                // A session lock instead of one held in an open transaction, which
+                // create index concurrently would otherwise wait on forever
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.drainadoption.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import com.example.drainadoption.metrics.StatementCounter;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Metrics served in Prometheus format at {@code /actuator/prometheus}.
+ *
+ * Latency timers get fixed SLO buckets instead of client-side percentiles, so
+ * percentiles and "share of requests under 250 ms" can be computed across
+ * instances with {@code histogram_quantile}. Request histograms are kept to
+ * the public API controllers to bound the series count.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    private static final List<String> HISTOGRAM_URI_PREFIXES =
+            List.of("/api/drains", "/api/auth", "/api/notifications");
+
+    private static final double[] REQUEST_SLOS = millis(5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000);
+
+    // Pool waits and token checks are expected well under a request's budget
+    private static final double[] FAST_SLOS = millis(1, 2, 5, 10, 25, 50, 100, 250, 1000);
+
+    private static final double[] HASHING_SLOS = millis(10, 25, 50, 100, 250, 500, 1000, 2500);
+
+    private static final double[] STATEMENT_COUNT_SLOS = {1, 2, 3, 5, 10, 20, 50, 100};
+
+    private static final Map<String, double[]> SLOS = Map.of(
+            "http.server.requests", REQUEST_SLOS,
+            "hikaricp.connections.acquire", FAST_SLOS,
+            "security.jwt.verification", FAST_SLOS,
+            "auth.password.hashing", HASHING_SLOS,
+            "auth.password.hashing.queue", HASHING_SLOS,
+            StatementCounter.METRIC, STATEMENT_COUNT_SLOS);
+
+    @Bean
+    public MeterFilter sloBuckets() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                double[] slos = SLOS.get(id.getName());
+                if (slos == null || !histogramWanted(id)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .serviceLevelObjectives(slos)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterInspector(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    private static boolean histogramWanted(Meter.Id id) {
+        String uri = id.getTag("uri");
+        return uri == null || HISTOGRAM_URI_PREFIXES.stream().anyMatch(uri::startsWith);
+    }
+
+    private static double[] millis(long... values) {
+        return Arrays.stream(values)
+                .mapToDouble(value -> Duration.ofMillis(value).toNanos())
+                .toArray();
+    }
+}
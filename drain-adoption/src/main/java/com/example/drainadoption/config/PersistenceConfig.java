@@ -0,0 +1,19 @@
+package com.example.drainadoption.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * JPA defaults for the application.
+ *
+ * Open-in-view is off. With it, a request's EntityManager keeps the first
+ * connection it borrows until the response is written, including while the
+ * request waits on a cache entry that another request is loading; under load
+ * every pooled connection ends up held by a waiter and the loaders time out.
+ * Without it, each repository call or transaction returns its connection as
+ * soon as it finishes.
+ */
+@Configuration
+@PropertySource("classpath:persistence.properties")
+public class PersistenceConfig {
+}
@@ -0,0 +1,48 @@
+package com.example.drainadoption.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves requests on virtual threads instead of Tomcat's platform thread pool
+ * when {@code threads.virtual.enabled=true}. Spring Boot 3.1 has no setting
+ * for this; from 3.2 on, its {@code spring.threads.virtual.enabled} also
+ * switches other executors, so an upgrade should replace this class with it.
+ * Needs a Java 21 runtime; the build still targets Java 17, so the executor is
+ * looked up reflectively and startup fails on an older runtime rather than
+ * silently staying on platform threads.
+ *
+ * With one thread per request, concurrency is bounded by the
+ * {@code ConcurrencyLimitFilter} limits and the connection pool, not by
+ * {@code server.tomcat.threads.max}; see the README for pool sizing.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("threads.virtual.enabled requires Java 21 or newer, running on "
+                    + Runtime.version(), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e);
+        }
+    }
+}
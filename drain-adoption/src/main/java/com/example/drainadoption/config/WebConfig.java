@@ -1,9 +1,14 @@
 package com.example.drainadoption.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.ConverterFactory;
+import org.springframework.format.FormatterRegistry;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.Locale;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -20,4 +25,20 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        // Accept enum request parameters in any case, e.g. format=ndjson
+        registry.addConverterFactory(new CaseInsensitiveEnumConverterFactory());
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static class CaseInsensitiveEnumConverterFactory implements ConverterFactory<String, Enum> {
+        @Override
+        public <T extends Enum> Converter<String, T> getConverter(Class<T> targetType) {
+            return source -> source.isBlank()
+                    ? null
+                    : (T) Enum.valueOf(targetType, source.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+}
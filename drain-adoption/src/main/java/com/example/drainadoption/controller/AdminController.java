@@ -3,14 +3,27 @@ package com.example.drainadoption.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import com.example.drainadoption.dto.CacheStatsDTO;
+import com.example.drainadoption.dto.ConcurrencyLimitStatsDTO;
+import com.example.drainadoption.dto.NotificationWriteStatsDTO;
+import com.example.drainadoption.dto.PasswordHashingStatsDTO;
 import com.example.drainadoption.dto.RegisterRequest;
 import com.example.drainadoption.model.User;
 import com.example.drainadoption.model.User.UserRole;
 import com.example.drainadoption.repository.UserRepository;
+import com.example.drainadoption.security.ConcurrencyLimitFilter;
+import com.example.drainadoption.security.PasswordHashingService;
+import com.example.drainadoption.security.VerifiedTokenCache;
+import com.example.drainadoption.service.DrainCache;
+import com.example.drainadoption.service.NotificationWriter;
+import com.example.drainadoption.service.UserCache;
+import com.example.drainadoption.service.UserNameCache;
+import com.example.drainadoption.metrics.StatementBudget;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -23,7 +36,28 @@ public class AdminController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private DrainCache drainCache;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserNameCache userNameCache;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     /**
      * Create the first admin user. This endpoint is only accessible when no admin users exist.
@@ -33,10 +67,10 @@ public class AdminController {
      * Consider disabling it after initial setup by setting a configuration flag.
      */
     @PostMapping("/create-first-admin")
+    @StatementBudget(3)
     public ResponseEntity<?> createFirstAdmin(@RequestBody RegisterRequest request) {
         // Check if any admin user already exists
-        boolean adminExists = userRepository.findAll().stream()
-            .anyMatch(user -> user.getRole() == UserRole.ADMIN);
+        boolean adminExists = userRepository.existsByRole(UserRole.ADMIN);
 
         if (adminExists) {
             Map<String, String> error = new HashMap<>();
@@ -56,7 +90,7 @@ public class AdminController {
         User admin = new User();
         admin.setName(request.getName());
         admin.setEmail(request.getEmail());
-        admin.setPassword(passwordEncoder.encode(request.getPassword()));
+        admin.setPassword(passwordHashingService.encode(request.getPassword()));
         admin.setRole(UserRole.ADMIN);
 
         User savedAdmin = userRepository.save(admin);
@@ -78,34 +112,84 @@ public class AdminController {
      * @param userId The ID of the user to promote
      */
     @PutMapping("/promote/{userId}")
+    @StatementBudget(2)
     public ResponseEntity<?> promoteToAdmin(@PathVariable Long userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-
-        if (userOptional.isEmpty()) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "User not found");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        // Read and changed in one transaction, so the save does not read the user again
+        ResponseEntity<?> result = transactionTemplate.execute(status -> {
+            Optional<User> userOptional = userRepository.findById(userId);
+
+            if (userOptional.isEmpty()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "User not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            }
+
+            User user = userOptional.get();
+
+            if (user.getRole() == UserRole.ADMIN) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "User is already an admin");
+                return ResponseEntity.badRequest().body(error);
+            }
+
+            // Promote user to admin
+            user.setRole(UserRole.ADMIN);
+            User updatedUser = userRepository.save(user);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "User promoted to admin successfully");
+            response.put("userId", updatedUser.getId());
+            response.put("email", updatedUser.getEmail());
+            response.put("name", updatedUser.getName());
+            response.put("role", updatedUser.getRole().name());
+
+            return ResponseEntity.ok(response);
+        });
+
+        if (result.getStatusCode().is2xxSuccessful()) {
+            userCache.invalidate(userId);
         }
+        return result;
+    }
 
-        User user = userOptional.get();
-
-        if (user.getRole() == UserRole.ADMIN) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "User is already an admin");
-            return ResponseEntity.badRequest().body(error);
-        }
+    /**
+     * Hit, miss and eviction statistics of the in-process caches, for sizing them.
+     * This endpoint requires ADMIN authentication.
+     */
+    @GetMapping("/cache-stats")
+    @StatementBudget(0)
+    public ResponseEntity<Map<String, CacheStatsDTO>> getCacheStats() {
+        Map<String, CacheStatsDTO> stats = new LinkedHashMap<>();
+        stats.put("drains", drainCache.stats());
+        stats.put("users", userCache.stats());
+        stats.put("userNames", userNameCache.stats());
+        stats.put("verifiedTokens", verifiedTokenCache.stats());
+        return ResponseEntity.ok(stats);
+    }
 
-        // Promote user to admin
-        user.setRole(UserRole.ADMIN);
-        User updatedUser = userRepository.save(user);
+    /**
+     * Notification writes and their insert latency on the request path, and
+     * the outbox depth and relay batches behind them. This endpoint requires ADMIN authentication.
+     */
+    @GetMapping("/notification-writes")
+    @StatementBudget(0)
+    public ResponseEntity<NotificationWriteStatsDTO> getNotificationWriteStats() {
+        return ResponseEntity.ok(notificationWriter.stats());
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "User promoted to admin successfully");
-        response.put("userId", updatedUser.getId());
-        response.put("email", updatedUser.getEmail());
-        response.put("name", updatedUser.getName());
-        response.put("role", updatedUser.getRole().name());
+    /**
+     * Pool occupancy, rejections, queue wait and hash latency of password hashing.
+     * This endpoint requires ADMIN authentication.
+     */
+    @GetMapping("/password-hashing")
+    @StatementBudget(0)
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.stats());
+    }
 
-        return ResponseEntity.ok(response);
+    @GetMapping("/concurrency-limits")
+    @StatementBudget(0)
+    public ResponseEntity<Map<String, ConcurrencyLimitStatsDTO>> getConcurrencyLimitStats() {
+        return ResponseEntity.ok(concurrencyLimitFilter.stats());
     }
 }
@@ -3,7 +3,6 @@ package com.example.drainadoption.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import com.example.drainadoption.dto.LoginRequest;
 import com.example.drainadoption.dto.LoginResponse;
@@ -12,6 +11,8 @@ import com.example.drainadoption.model.User;
 import com.example.drainadoption.model.User.UserRole;
 import com.example.drainadoption.repository.UserRepository;
 import com.example.drainadoption.security.JwtUtil;
+import com.example.drainadoption.security.PasswordHashingService;
+import com.example.drainadoption.metrics.StatementBudget;
 
 import java.util.Optional;
 
@@ -27,9 +28,10 @@ public class AuthController {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @PostMapping("/register")
+    @StatementBudget(2)
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
         // Check if email already exists
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
@@ -40,7 +42,7 @@ public class AuthController {
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         
         // Public registration always creates ADOPTER users
         // Admin users must be created through secure admin endpoints
@@ -66,9 +68,11 @@ public class AuthController {
         );
     }
 
+    // Lookup, plus the re-hash of a password stored at another strength
     @PostMapping("/login")
+    @StatementBudget(2)
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        Optional<User> userOptional = userRepository.findByEmail(request.getEmail());
+        Optional<User> userOptional = userRepository.findWithAdoptedDrainByEmail(request.getEmail());
 
         if (userOptional.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -77,11 +81,16 @@ public class AuthController {
 
         User user = userOptional.get();
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body("Invalid email or password");
         }
 
+        // Re-hash passwords stored with any BCrypt strength other than the configured one.
+        // Conditional, so a password changed since the lookup is not overwritten.
+        passwordHashingService.rehashIfOutdated(request.getPassword(), user.getPassword())
+            .ifPresent(rehashed -> userRepository.replacePassword(user.getId(), user.getPassword(), rehashed));
+
         // Generate token
         String token = jwtUtil.generateToken(
             user.getEmail(),
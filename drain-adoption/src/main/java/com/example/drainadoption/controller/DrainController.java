@@ -1,59 +1,255 @@
 package com.example.drainadoption.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.example.drainadoption.exception.DrainNotFoundException;
-import com.example.drainadoption.exception.AdoptionConflictException;
 import com.example.drainadoption.model.Drain;
-import com.example.drainadoption.model.User;
 import com.example.drainadoption.model.Comment;
-import com.example.drainadoption.model.Notification;
 import com.example.drainadoption.model.Notification.NotificationType;
 import com.example.drainadoption.repository.DrainRepository;
-import com.example.drainadoption.repository.UserRepository;
 import com.example.drainadoption.repository.CommentRepository;
-import com.example.drainadoption.repository.NotificationRepository;
+import com.example.drainadoption.dto.DrainBatchRequest;
+import com.example.drainadoption.dto.DrainBatchResultDTO;
 import com.example.drainadoption.dto.DrainDTO;
+import com.example.drainadoption.dto.DrainImportDTO;
 import com.example.drainadoption.dto.DrainUpdateDTO;
 import com.example.drainadoption.dto.CommentRequest;
+import com.example.drainadoption.dto.ClusterDTO;
 import com.example.drainadoption.dto.CommentDTO;
+import com.example.drainadoption.dto.CursorPage;
+import com.example.drainadoption.dto.PageCursor;
+import com.example.drainadoption.exception.InvalidCursorException;
+import com.example.drainadoption.exception.InvalidImportException;
+import com.example.drainadoption.service.AdoptionService;
+import com.example.drainadoption.service.DrainBatchService;
+import com.example.drainadoption.service.DrainCache;
+import com.example.drainadoption.service.DrainCatalogVersion;
+import com.example.drainadoption.service.DrainChangePublisher;
+import com.example.drainadoption.service.DrainClusterPyramid;
+import com.example.drainadoption.service.DrainExportService;
+import com.example.drainadoption.service.DrainImportService;
+import com.example.drainadoption.service.DrainSpatialIndex;
+import com.example.drainadoption.service.NotificationWriter;
+import com.example.drainadoption.service.UserNameCache;
+import com.example.drainadoption.metrics.StatementBudget;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/drains")
 public class DrainController {
 
+    private static final int MAX_NEAREST = 100;
+    private static final double MAX_RADIUS_KM = 10;
+
     @Autowired
     private DrainRepository drainRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CommentRepository commentRepository;
 
     @Autowired
-    private CommentRepository commentRepository;
+    private DrainSpatialIndex drainSpatialIndex;
+
+    @Autowired
+    private DrainClusterPyramid drainClusterPyramid;
+
+    @Autowired
+    private DrainChangePublisher drainChangePublisher;
+
+    @Autowired
+    private UserNameCache userNameCache;
+
+    @Autowired
+    private DrainCache drainCache;
+
+    @Autowired
+    private DrainCatalogVersion drainCatalogVersion;
+
+    @Autowired
+    private DrainExportService drainExportService;
+
+    @Autowired
+    private DrainImportService drainImportService;
 
     @Autowired
-    private NotificationRepository notificationRepository;
+    private DrainBatchService drainBatchService;
+
+    @Autowired
+    private AdoptionService adoptionService;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     @GetMapping
-    public ResponseEntity<List<DrainDTO>> getAllDrains() {
-        List<DrainDTO> drainDTOs = drainRepository.findAll().stream()
-                .map(DrainDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(drainDTOs);
+    @StatementBudget(2)
+    public ResponseEntity<?> getAllDrains(
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
+        double[] box = null;
+        if (bbox != null) {
+            box = parseBbox(bbox);
+            if (box == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        // Every list variant depends only on the catalogue, so its change sequence is the ETag
+        String eTag = "\"" + drainCatalogVersion.current() + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache());
+
+        if (box != null) {
+            List<Long> ids = drainSpatialIndex.findWithin(box[0], box[1], box[2], box[3]);
+            return ok.body(findDrainsInOrder(ids));
+        }
+
+        // Paged mode; requests without limit or cursor keep receiving the full list
+        if (limit != null || cursor != null) {
+            int pageSize = CursorPage.pageSize(limit);
+            Long afterId = cursor != null ? PageCursor.decode(cursor).getId() : 0L;
+            List<DrainDTO> rows = drainRepository.findDTOsAfter(afterId, PageRequest.of(0, pageSize + 1));
+            return ok.body(CursorPage.of(rows, pageSize,
+                    Function.identity(), drain -> PageCursor.afterId(drain.getId())));
+        }
+
+        return ok.body(drainRepository.findAllDTOs());
     }
 
+    @GetMapping("/nearest")
+    @StatementBudget(1)
+    public ResponseEntity<List<DrainDTO>> getNearestDrains(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "false") boolean unadoptedOnly) {
+        if (k < 1 || k > MAX_NEAREST || Math.abs(lat) > 90 || Math.abs(lon) > 180) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> ids = drainSpatialIndex.findNearest(lat, lon, k, unadoptedOnly);
+        return ResponseEntity.ok(findDrainsInOrder(ids));
+    }
+
+    // Served by the database through the geohash index, nearest first
+    @GetMapping("/near")
+    @StatementBudget(2)
+    public ResponseEntity<List<DrainDTO>> getDrainsNear(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "1") double radiusKm) {
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM) || Math.abs(lat) > 90 || Math.abs(lon) > 180) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(drainRepository.findDTOsWithinRadius(lat, lon, radiusKm));
+    }
+
+    @GetMapping("/clusters")
+    @StatementBudget(0)
+    public ResponseEntity<List<ClusterDTO>> getClusters(
+            @RequestParam int zoom,
+            @RequestParam(required = false) String bbox) {
+        double[] box = null;
+        if (bbox != null) {
+            box = parseBbox(bbox);
+            if (box == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        if (zoom < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(drainClusterPyramid.findClusters(zoom, box));
+    }
+
+    // Full catalogue export, streamed row by row from the database to the client
+    @GetMapping("/export")
+    @StatementBudget(1)
+    public void exportDrains(
+            @RequestParam(defaultValue = "ndjson") DrainExportService.Format format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        drainExportService.export(format, response.getOutputStream());
+    }
+
+    /**
+     * Bulk import streamed from the request body (CSV or GeoJSON). Progress is
+     * visible under /imports/{importId} while it runs; after a failure, posting
+     * the same file with the same importId resumes after the last committed batch.
+     */
+    @PostMapping("/imports")
+    @StatementBudget(allowRepeats = true)
+    public ResponseEntity<DrainImportDTO> importDrains(
+            @RequestParam DrainImportService.Format format,
+            @RequestParam(required = false) String importId,
+            HttpServletRequest request) throws IOException {
+        // The container reads form-encoded bodies as request parameters, leaving nothing to import
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
+            throw new InvalidImportException("Send the import as text/csv or application/geo+json");
+        }
+        return ResponseEntity.ok(drainImportService.importDrains(importId, format, request.getInputStream()));
+    }
+
+    @GetMapping("/imports/{importId}")
+    @StatementBudget(1)
+    public ResponseEntity<DrainImportDTO> getImport(@PathVariable String importId) {
+        return ResponseEntity.ok(drainImportService.find(importId));
+    }
+
+    /**
+     * Tagged "id.version@catalogue". A client tag for this drain taken at the current
+     * catalogue sequence is answered without any lookup; otherwise a tag with the
+     * drain's current row version is still a match.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<DrainDTO> getDrain(@PathVariable Long id) {
-        return drainRepository.findById(id)
-                .map(drain -> ResponseEntity.ok(DrainDTO.fromEntity(drain)))
+    @StatementBudget(1)
+    public ResponseEntity<DrainDTO> getDrain(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String catalogue = drainCatalogVersion.current();
+        List<String> clientTags = parseETags(ifNoneMatch);
+        for (String tag : clientTags) {
+            if (tag.startsWith(id + ".") && tag.endsWith("@" + catalogue)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"" + tag + "\"").build();
+            }
+        }
+
+        DrainDTO drain = drainCache.find(id)
                 .orElseThrow(() -> new DrainNotFoundException(id));
+        String versionPrefix = id + "." + drain.getVersion() + "@";
+        String eTag = "\"" + versionPrefix + catalogue + "\"";
+        for (String tag : clientTags) {
+            if (tag.startsWith(versionPrefix)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(drain);
     }
 
     @PostMapping
+    @StatementBudget(2)
     public ResponseEntity<DrainDTO> createDrain(@RequestBody DrainDTO drainDTO) {
         Drain drain = new Drain();
         drain.setName(drainDTO.getName());
@@ -62,129 +258,82 @@ public class DrainController {
         drain.setLongitude(drainDTO.getLongitude());
         
         Drain savedDrain = drainRepository.save(drain);
+        drainChangePublisher.drainSaved(savedDrain);
         return ResponseEntity.status(HttpStatus.CREATED).body(DrainDTO.fromEntity(savedDrain));
     }
 
     @DeleteMapping("/{id}")
+    @StatementBudget(4)
     public ResponseEntity<Void> deleteDrain(@PathVariable Long id) {
-        Drain drain = drainRepository.findById(id)
-                .orElseThrow(() -> new DrainNotFoundException(id));
-        
-        // 1. Delete all comments associated with this drain
-        commentRepository.deleteByDrainId(id);
-        
-        // 2. Delete all notifications associated with this drain
-        notificationRepository.deleteByDrainId(id);
-        
-        // 3. Clear the adoption relationship if drain is adopted
-        if (drain.getAdoptedByUser() != null) {
-            User adopter = drain.getAdoptedByUser();
-            adopter.setAdoptedDrain(null);
-            userRepository.save(adopter);
+        if (drainBatchService.delete(List.of(id)).getMatched() == 0) {
+            throw new DrainNotFoundException(id);
         }
-        
-        // 4. Now safe to delete the drain
-        drainRepository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
+    // Up to three claims, each read back and possibly releasing an orphaned adopter;
+    // the winning claim also reads its version
     @PostMapping("/{id}/adopt")
+    @StatementBudget(14)
     public ResponseEntity<?> adoptDrain(@PathVariable Long id, @RequestParam Long userId) {
-        // 1. Find user by userId
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new AdoptionConflictException("User not found with ID: " + userId));
-
-        // 2. Check if user already adopted a different drain
-        if (user.getAdoptedDrain() != null) {
-            throw new AdoptionConflictException("User has already adopted drain with ID: " + 
-                user.getAdoptedDrain().getId());
-        }
-
-        // 3. Find the drain by id
-        Drain drain = drainRepository.findById(id)
-                .orElseThrow(() -> new DrainNotFoundException(id));
-
-        // 4. Check if drain already adopted by someone else
-        if (drain.getAdoptedByUser() != null) {
-            // Check if the adopting user still exists
-            Long adopterId = drain.getAdoptedByUser().getId();
-            if (!userRepository.existsById(adopterId)) {
-                // Orphaned relationship - clean it up
-                drain.setAdoptedByUser(null);
-                drainRepository.save(drain);
-            } else {
-                throw new AdoptionConflictException("Drain is already adopted by user with ID: " + adopterId);
-            }
-        }
-
-        // 5. Set relationships both ways
-        user.setAdoptedDrain(drain);
-        drain.setAdoptedByUser(user);
-
-        // 6. Save both entities
-        userRepository.save(user);
-        drainRepository.save(drain);
-
-        // 7. Create notification for admins
-        Notification notification = new Notification();
-        notification.setType(NotificationType.DRAIN_ADOPTED);
-        notification.setMessage(user.getName() + " adopted drain: " + drain.getName());
-        notification.setDrainId(drain.getId());
-        notification.setUserId(user.getId());
-        notificationRepository.save(notification);
-
         return ResponseEntity.ok()
-                .body(DrainDTO.fromEntity(drain));
+                .body(adoptionService.adopt(id, userId));
     }
 
     @PutMapping("/{id}")
+    @StatementBudget(2)
     public ResponseEntity<DrainDTO> updateDrain(
             @PathVariable Long id,
             @RequestBody DrainUpdateDTO updateDTO) {
         
-        Drain drain = drainRepository.findById(id)
-                .orElseThrow(() -> new DrainNotFoundException(id));
-
-        // Update drain fields
-        if (updateDTO.getName() != null) {
-            drain.setName(updateDTO.getName());
-        }
-        if (updateDTO.getImageUrl() != null) {
-            drain.setImageUrl(updateDTO.getImageUrl());
-        }
-        if (updateDTO.getLatitude() != null) {
-            drain.setLatitude(updateDTO.getLatitude());
-        }
-        if (updateDTO.getLongitude() != null) {
-            drain.setLongitude(updateDTO.getLongitude());
-        }
+        // Read and changed in one transaction, so the save does not read the drain again
+        Drain updatedDrain = transactionTemplate.execute(status -> {
+            Drain drain = drainRepository.findById(id)
+                    .orElseThrow(() -> new DrainNotFoundException(id));
+
+            // Update drain fields
+            if (updateDTO.getName() != null) {
+                drain.setName(updateDTO.getName());
+            }
+            if (updateDTO.getImageUrl() != null) {
+                drain.setImageUrl(updateDTO.getImageUrl());
+            }
+            if (updateDTO.getLatitude() != null) {
+                drain.setLatitude(updateDTO.getLatitude());
+            }
+            if (updateDTO.getLongitude() != null) {
+                drain.setLongitude(updateDTO.getLongitude());
+            }
 
-        Drain updatedDrain = drainRepository.save(drain);
+            return drainRepository.save(drain);
+        });
+        drainChangePublisher.drainSaved(updatedDrain);
         return ResponseEntity.ok(DrainDTO.fromEntity(updatedDrain));
     }
 
     // Comment endpoints
     @PostMapping("/{id}/comments")
+    @StatementBudget(3)
     public ResponseEntity<CommentDTO> addComment(
             @PathVariable Long id,
             @RequestParam Long userId,
             @RequestBody CommentRequest commentRequest) {
         
         // Verify drain exists
-        Drain drain = drainRepository.findById(id)
+        DrainDTO drain = drainCache.find(id)
                 .orElseThrow(() -> new DrainNotFoundException(id));
 
         // Verify user exists
-        User user = userRepository.findById(userId)
+        String userName = userNameCache.findName(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
 
         // Check if drain is adopted
-        if (drain.getAdoptedByUser() == null) {
+        if (drain.getAdoptedByUserId() == null) {
             return ResponseEntity.badRequest().build();
         }
 
         // Only the adopter of this drain can comment
-        if (!drain.getAdoptedByUser().getId().equals(userId)) {
+        if (!drain.getAdoptedByUserId().equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -195,22 +344,20 @@ public class DrainController {
         comment.setText(commentRequest.getText());
         comment.setImageUrl(commentRequest.getImageUrl());
         
-        Comment savedComment = commentRepository.save(comment);
-
-        // Create notification for admins
-        Notification notification = new Notification();
-        notification.setType(NotificationType.COMMENT_ADDED);
-        notification.setMessage(user.getName() + " commented on drain: " + drain.getName());
-        notification.setDrainId(drain.getId());
-        notification.setUserId(user.getId());
-        notificationRepository.save(notification);
+        // The comment and the admins' notification of it commit together
+        Comment savedComment = transactionTemplate.execute(status -> {
+            Comment saved = commentRepository.save(comment);
+            notificationWriter.write(NotificationType.COMMENT_ADDED,
+                    userName + " commented on drain: " + drain.getName(), drain.getId(), userId);
+            return saved;
+        });
 
         // Convert to DTO
         CommentDTO dto = new CommentDTO(
             savedComment.getId(),
             savedComment.getDrainId(),
             savedComment.getUserId(),
-            user.getName(),
+            userName,
             savedComment.getText(),
             savedComment.getImageUrl(),
             savedComment.getCreatedAt()
@@ -220,38 +367,45 @@ public class DrainController {
     }
 
     @GetMapping("/{id}/comments")
-    public ResponseEntity<List<CommentDTO>> getComments(@PathVariable Long id) {
+    @StatementBudget(2)
+    public ResponseEntity<?> getComments(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         // Verify drain exists
-        if (!drainRepository.existsById(id)) {
+        if (!drainCache.exists(id)) {
             throw new DrainNotFoundException(id);
         }
 
-        List<CommentDTO> comments = commentRepository.findByDrainIdOrderByCreatedAtDesc(id)
-                .stream()
-                .map(comment -> {
-                    User user = userRepository.findById(comment.getUserId()).orElse(null);
-                    return new CommentDTO(
-                        comment.getId(),
-                        comment.getDrainId(),
-                        comment.getUserId(),
-                        user != null ? user.getName() : "Unknown User",
-                        comment.getText(),
-                        comment.getImageUrl(),
-                        comment.getCreatedAt()
-                    );
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(comments);
+        // Paged mode; requests without limit or cursor keep receiving the full list
+        if (limit != null || cursor != null) {
+            int pageSize = CursorPage.pageSize(limit);
+            PageRequest firstRows = PageRequest.of(0, pageSize + 1);
+            List<CommentDTO> rows;
+            if (cursor == null) {
+                rows = commentRepository.findDTOsByDrainId(id, firstRows);
+            } else {
+                PageCursor position = PageCursor.decode(cursor);
+                if (position.getCreatedAt() == null) {
+                    throw new InvalidCursorException(cursor);
+                }
+                rows = commentRepository.findDTOPageAfter(id, position.getCreatedAt(), position.getId(), firstRows);
+            }
+            return ResponseEntity.ok(CursorPage.of(rows, pageSize, Function.identity(),
+                    comment -> PageCursor.after(comment.getCreatedAt(), comment.getId())));
+        }
+
+        return ResponseEntity.ok(commentRepository.findDTOsByDrainId(id, Pageable.unpaged()));
     }
 
     @DeleteMapping("/{drainId}/comments/{commentId}")
+    @StatementBudget(3)
     public ResponseEntity<Void> deleteComment(
             @PathVariable Long drainId,
             @PathVariable Long commentId) {
         
         // Verify drain exists
-        if (!drainRepository.existsById(drainId)) {
+        if (!drainCache.exists(drainId)) {
             throw new DrainNotFoundException(drainId);
         }
 
@@ -269,21 +423,108 @@ public class DrainController {
 
     // Admin endpoint to reset drain adoption (fix orphaned relationships)
     @PostMapping("/{id}/reset-adoption")
+    @StatementBudget(2)
     public ResponseEntity<?> resetDrainAdoption(@PathVariable Long id) {
-        Drain drain = drainRepository.findById(id)
-                .orElseThrow(() -> new DrainNotFoundException(id));
-
-        // If drain has an adopter, clear the relationship from both sides
-        if (drain.getAdoptedByUser() != null) {
-            User adopter = drain.getAdoptedByUser();
-            adopter.setAdoptedDrain(null);
-            userRepository.save(adopter);
-            
-            drain.setAdoptedByUser(null);
-            drainRepository.save(drain);
+        if (drainBatchService.resetAdoption(List.of(id)).getMatched() == 0) {
+            throw new DrainNotFoundException(id);
         }
-
         return ResponseEntity.ok()
                 .body(java.util.Map.of("message", "Drain adoption reset successfully"));
     }
+
+    // Batch admin operations on drains selected by id list or bounding box
+
+    @PostMapping("/batch/delete")
+    @StatementBudget(allowRepeats = true)
+    public ResponseEntity<DrainBatchResultDTO> deleteDrains(@RequestBody DrainBatchRequest request) {
+        List<Long> ids = selectDrains(request);
+        if (ids == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(drainBatchService.delete(ids));
+    }
+
+    @PostMapping("/batch/reset-adoption")
+    @StatementBudget(allowRepeats = true)
+    public ResponseEntity<DrainBatchResultDTO> resetDrainAdoptions(@RequestBody DrainBatchRequest request) {
+        List<Long> ids = selectDrains(request);
+        if (ids == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(drainBatchService.resetAdoption(ids));
+    }
+
+    // Sets name and/or image URL on every selected drain
+    @PostMapping("/batch/update")
+    @StatementBudget(allowRepeats = true)
+    public ResponseEntity<DrainBatchResultDTO> updateDrains(@RequestBody DrainBatchRequest request) {
+        List<Long> ids = selectDrains(request);
+        if (ids == null || (request.getName() == null && request.getImageUrl() == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(drainBatchService.updateDetails(ids, request.getName(), request.getImageUrl()));
+    }
+
+    // Ids chosen by exactly one of id list or bounding box; null when the selection is invalid
+    private List<Long> selectDrains(DrainBatchRequest request) {
+        if ((request.getIds() == null) == (request.getBbox() == null)) {
+            return null;
+        }
+        if (request.getIds() != null) {
+            return request.getIds().contains(null) ? null : request.getIds();
+        }
+        double[] box = parseBbox(request.getBbox());
+        return box == null ? null : drainSpatialIndex.findWithin(box[0], box[1], box[2], box[3]);
+    }
+
+    // Looks drains up by id and returns them in the order of the given ids
+    private List<DrainDTO> findDrainsInOrder(List<Long> ids) {
+        Map<Long, DrainDTO> byId = drainCache.findAll(ids);
+        List<DrainDTO> drains = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            DrainDTO dto = byId.get(id);
+            if (dto != null) {
+                drains.add(dto);
+            }
+        }
+        return drains;
+    }
+
+    // Opaque values of an If-None-Match header, with quotes and weak prefixes removed
+    private static List<String> parseETags(String ifNoneMatch) {
+        List<String> tags = new ArrayList<>();
+        if (ifNoneMatch == null) {
+            return tags;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                tags.add(value.substring(1, value.length() - 1));
+            }
+        }
+        return tags;
+    }
+
+    // Parses "minLat,minLon,maxLat,maxLon"; returns null when malformed
+    private static double[] parseBbox(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            return null;
+        }
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                box[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (box[0] > box[2] || box[1] > box[3]) {
+            return null;
+        }
+        return box;
+    }
 }
\ No newline at end of file
@@ -1,56 +1,141 @@
 package com.example.drainadoption.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.example.drainadoption.dto.CursorPage;
+import com.example.drainadoption.dto.MarkReadRequest;
+import com.example.drainadoption.dto.PageCursor;
+import com.example.drainadoption.exception.InvalidCursorException;
 import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.model.Notification.NotificationType;
 import com.example.drainadoption.repository.NotificationRepository;
+import com.example.drainadoption.service.NotificationChangePublisher;
+import com.example.drainadoption.service.NotificationStreamHub;
+import com.example.drainadoption.service.UnreadNotificationCounter;
+import com.example.drainadoption.metrics.StatementBudget;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/notifications")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 public class NotificationController {
 
+    // Ids accepted by one mark-read call, kept well under the JDBC bind parameter limit
+    private static final int MAX_MARK_READ_IDS = 1000;
+
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationStreamHub notificationStreamHub;
+
+    @Autowired
+    private NotificationChangePublisher notificationChangePublisher;
+
+    @Autowired
+    private UnreadNotificationCounter unreadNotificationCounter;
+
     @GetMapping
-    public ResponseEntity<List<Notification>> getAllNotifications() {
+    @StatementBudget(1)
+    public ResponseEntity<?> getAllNotifications(
+            @RequestParam(required = false) NotificationType type,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        // Paged mode; requests without type, limit or cursor keep receiving the full list
+        if (type != null || limit != null || cursor != null) {
+            int pageSize = CursorPage.pageSize(limit);
+            PageRequest firstRows = PageRequest.of(0, pageSize + 1);
+            List<Notification> rows;
+            if (cursor == null) {
+                rows = notificationRepository.findPage(type, firstRows);
+            } else {
+                PageCursor position = PageCursor.decode(cursor);
+                if (position.getCreatedAt() == null) {
+                    throw new InvalidCursorException(cursor);
+                }
+                rows = notificationRepository.findPageAfter(type, position.getCreatedAt(), position.getId(), firstRows);
+            }
+            return ResponseEntity.ok(CursorPage.of(rows, pageSize, Function.identity(),
+                    notification -> PageCursor.after(notification.getCreatedAt(), notification.getId())));
+        }
+
         List<Notification> notifications = notificationRepository.findAllByOrderByCreatedAtDesc();
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Server-Sent Events stream of new notifications and unread-count changes.
+     * Reconnecting clients send the last event id they saw to resume.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @StatementBudget(1)
+    public SseEmitter streamNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return notificationStreamHub.subscribe(lastEventId);
+    }
+
+    // Counts in the database only until the first reconciliation
     @GetMapping("/unread-count")
+    @StatementBudget(2)
     public ResponseEntity<Map<String, Long>> getUnreadCount() {
-        Long count = notificationRepository.countByReadFalse();
+        Long count = unreadNotificationCounter.current();
         Map<String, Long> response = new HashMap<>();
         response.put("count", count);
         return ResponseEntity.ok(response);
     }
 
+    // Conditional UPDATE, so of two concurrent calls only the one that flips the row counts it
     @PutMapping("/{id}/read")
+    @StatementBudget(2)
     public ResponseEntity<Notification> markAsRead(@PathVariable Long id) {
+        int updated = notificationRepository.markReadByIds(List.of(id));
+        notificationChangePublisher.notificationsRead(updated);
+
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Notification not found with ID: " + id));
-
-        notification.setRead(true);
-        Notification updatedNotification = notificationRepository.save(notification);
-        
-        return ResponseEntity.ok(updatedNotification);
+        return ResponseEntity.ok(notification);
     }
 
     @PutMapping("/mark-all-read")
-    public ResponseEntity<Map<String, String>> markAllAsRead() {
-        List<Notification> notifications = notificationRepository.findAll();
-        notifications.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(notifications);
+    @StatementBudget(1)
+    public ResponseEntity<Map<String, Object>> markAllAsRead() {
+        int updated = notificationRepository.markAllRead();
+        notificationChangePublisher.notificationsRead(updated);
 
-        Map<String, String> response = new HashMap<>();
+        Map<String, Object> response = new HashMap<>();
         response.put("message", "All notifications marked as read");
+        response.put("updated", updated);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Marks the listed notifications, or all created before {@code olderThan}, as read
+     * with one UPDATE.
+     */
+    @PutMapping("/mark-read")
+    @StatementBudget(1)
+    public ResponseEntity<Map<String, Object>> markAsRead(@RequestBody MarkReadRequest request) {
+        boolean byIds = request.getIds() != null;
+        if (byIds == (request.getOlderThan() != null)
+                || (byIds && request.getIds().size() > MAX_MARK_READ_IDS)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int updated = byIds
+                ? (request.getIds().isEmpty() ? 0 : notificationRepository.markReadByIds(request.getIds()))
+                : notificationRepository.markReadOlderThan(request.getOlderThan());
+        notificationChangePublisher.notificationsRead(updated);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", updated);
         return ResponseEntity.ok(response);
     }
 }
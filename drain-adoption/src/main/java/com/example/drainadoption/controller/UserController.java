@@ -1,14 +1,20 @@
 package com.example.drainadoption.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.example.drainadoption.model.User;
 import com.example.drainadoption.repository.UserRepository;
 import com.example.drainadoption.dto.UserDTO;
+import com.example.drainadoption.dto.CursorPage;
+import com.example.drainadoption.dto.PageCursor;
+import com.example.drainadoption.service.UserCache;
+import com.example.drainadoption.service.UserNameCache;
+import com.example.drainadoption.metrics.StatementBudget;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/users")
@@ -18,22 +24,39 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserNameCache userNameCache;
+
+    @Autowired
+    private UserCache userCache;
+
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userRepository.findAll().stream()
-                .map(UserDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(users);
+    @StatementBudget(1)
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        // Paged mode; requests without limit or cursor keep receiving the full list
+        if (limit != null || cursor != null) {
+            int pageSize = CursorPage.pageSize(limit);
+            Long afterId = cursor != null ? PageCursor.decode(cursor).getId() : 0L;
+            List<UserDTO> rows = userRepository.findDTOsAfter(afterId, PageRequest.of(0, pageSize + 1));
+            return ResponseEntity.ok(CursorPage.of(rows, pageSize,
+                    Function.identity(), user -> PageCursor.afterId(user.getId())));
+        }
+
+        return ResponseEntity.ok(userRepository.findAllDTOs());
     }
 
     @GetMapping("/{id}")
+    @StatementBudget(2)
     public ResponseEntity<UserDTO> getUser(@PathVariable Long id) {
-        return userRepository.findById(id)
-                .map(user -> ResponseEntity.ok(UserDTO.fromEntity(user)))
+        return userCache.find(id)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
+    @StatementBudget(1)
     public ResponseEntity<UserDTO> createUser(@RequestBody UserDTO userDTO) {
         User user = new User();
         user.setName(userDTO.getName());
@@ -43,11 +66,14 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
+    @StatementBudget(3)
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         if (!userRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
         userRepository.deleteById(id);
+        userNameCache.invalidate(id);
+        userCache.invalidate(id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,29 @@
+package com.example.drainadoption.dto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Data;
+
+@Data
+public class CacheStatsDTO {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long loadFailureCount;
+    private double averageLoadPenaltyMillis;
+
+    public static CacheStatsDTO fromCache(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setSize(cache.estimatedSize());
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setLoadFailureCount(stats.loadFailureCount());
+        dto.setAverageLoadPenaltyMillis(stats.averageLoadPenalty() / 1_000_000.0);
+        return dto;
+    }
+}
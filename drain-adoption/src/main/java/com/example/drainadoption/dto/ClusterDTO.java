@@ -0,0 +1,16 @@
+package com.example.drainadoption.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterDTO {
+    private Double latitude;  // Centroid of the drains in the cell
+    private Double longitude;
+    private int count;
+    private int adoptedCount;
+    private int unadoptedCount;
+}
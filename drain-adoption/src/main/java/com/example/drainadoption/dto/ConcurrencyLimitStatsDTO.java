@@ -0,0 +1,14 @@
+package com.example.drainadoption.dto;
+
+import lombok.Data;
+
+@Data
+public class ConcurrencyLimitStatsDTO {
+    private int limit;
+    private int inFlight;
+    private long accepted;
+    private long rejected;
+    private long backoffs;
+    private double averageLatencyMillis;
+    private long latencyThresholdMillis;
+}
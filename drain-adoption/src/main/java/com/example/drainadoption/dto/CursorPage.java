@@ -0,0 +1,36 @@
+package com.example.drainadoption.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private String next; // Opaque cursor for the following page, null on the last page
+
+    public static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Builds a page from the rows of a keyset query that fetched {@code limit + 1} rows;
+     * the extra row only signals that another page exists.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit,
+                                          Function<E, T> mapper, Function<E, PageCursor> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String next = hasMore ? cursorOf.apply(pageRows.get(limit - 1)).encode() : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).collect(Collectors.toList()), next);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.drainadoption.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * Selects drains for a batch operation by id list or by bounding box
+ * ("minLat,minLon,maxLat,maxLon"), exactly one of the two. Name and image URL
+ * are only read by the batch update; null leaves them unchanged.
+ */
+@Data
+public class DrainBatchRequest {
+    private List<Long> ids;
+    private String bbox;
+    private String name;
+    private String imageUrl;
+}
@@ -0,0 +1,14 @@
+package com.example.drainadoption.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DrainBatchResultDTO {
+    private long matched;  // Selected drains that exist
+    private long affected; // Drains actually deleted or changed
+    private int chunks;    // Statements' IN lists the ids were split into, all in one transaction
+}
@@ -1,9 +1,14 @@
 package com.example.drainadoption.dto;
 
 import com.example.drainadoption.model.Drain;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class DrainDTO {
     private Long id;
     private String name;
@@ -11,6 +16,8 @@ public class DrainDTO {
     private Double latitude;
     private Double longitude;
     private Long adoptedByUserId;
+    @JsonIgnore
+    private Long version; // Row version, used for the detail ETag
 
     public static DrainDTO fromEntity(Drain drain) {
         DrainDTO dto = new DrainDTO();
@@ -19,6 +26,7 @@ public class DrainDTO {
         dto.setImageUrl(drain.getImageUrl());
         dto.setLatitude(drain.getLatitude());
         dto.setLongitude(drain.getLongitude());
+        dto.setVersion(drain.getVersion());
         if (drain.getAdoptedByUser() != null) {
             dto.setAdoptedByUserId(drain.getAdoptedByUser().getId());
         }
@@ -0,0 +1,35 @@
+package com.example.drainadoption.dto;
+
+import com.example.drainadoption.model.DrainImport;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class DrainImportDTO {
+    private String id;
+    private String format;
+    private String status;
+    private long rowsProcessed;
+    private long inserted;
+    private long rejected;
+    private String lastError;
+    // First rejected rows of this run, with the reason; empty when read back later
+    private List<String> rejections = List.of();
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+
+    public static DrainImportDTO fromEntity(DrainImport drainImport) {
+        DrainImportDTO dto = new DrainImportDTO();
+        dto.setId(drainImport.getId());
+        dto.setFormat(drainImport.getFormat());
+        dto.setStatus(drainImport.getStatus().name());
+        dto.setRowsProcessed(drainImport.getRowsProcessed());
+        dto.setInserted(drainImport.getInserted());
+        dto.setRejected(drainImport.getRejected());
+        dto.setLastError(drainImport.getLastError());
+        dto.setStartedAt(drainImport.getStartedAt());
+        dto.setUpdatedAt(drainImport.getUpdatedAt());
+        return dto;
+    }
+}
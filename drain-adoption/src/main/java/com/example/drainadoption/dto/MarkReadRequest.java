@@ -0,0 +1,14 @@
+package com.example.drainadoption.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Exactly one of ids or olderThan selects the notifications to mark as read
+@Data
+@NoArgsConstructor
+public class MarkReadRequest {
+    private List<Long> ids;
+    private LocalDateTime olderThan;
+}
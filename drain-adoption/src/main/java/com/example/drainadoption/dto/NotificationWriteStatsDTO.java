@@ -0,0 +1,19 @@
+package com.example.drainadoption.dto;
+
+import lombok.Data;
+
+@Data
+public class NotificationWriteStatsDTO {
+    private long queued; // Committed to the outbox
+    private long writtenDirectly; // Inserted by the request because the outbox was full
+    private long rolledBack; // Inserted, then rolled back with the change they reported
+    private double averageInsertMillis; // The insert each request makes, either way
+    private double maxInsertMillis;
+    private long depth;
+    private long maxDepth;
+    private long relayed;
+    private long batches;
+    private long failedBatches;
+    private double averageFlushMillis;
+    private double maxFlushMillis;
+}
@@ -0,0 +1,46 @@
+package com.example.drainadoption.dto;
+
+import com.example.drainadoption.exception.InvalidCursorException;
+import lombok.Data;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position within a list ordered by id, or by (createdAt, id).
+ * Clients only ever see the encoded form and must pass it back unchanged.
+ */
+@Data
+public class PageCursor {
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public static PageCursor afterId(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor after(LocalDateTime createdAt, Long id) {
+        return new PageCursor(createdAt, id);
+    }
+
+    public String encode() {
+        String raw = createdAt != null ? createdAt + "|" + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                return afterId(Long.parseLong(raw));
+            }
+            return after(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
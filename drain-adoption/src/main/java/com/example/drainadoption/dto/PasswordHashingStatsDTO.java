@@ -0,0 +1,18 @@
+package com.example.drainadoption.dto;
+
+import lombok.Data;
+
+@Data
+public class PasswordHashingStatsDTO {
+    private int threads;
+    private int active;
+    private int queued;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private long rehashed;
+    private double averageQueueWaitMillis;
+    private double maxQueueWaitMillis;
+    private double averageHashMillis;
+    private double maxHashMillis;
+}
@@ -2,8 +2,10 @@ package com.example.drainadoption.dto;
 
 import com.example.drainadoption.model.User;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class UserDTO {
     private Long id;
     private String name;
@@ -11,6 +13,15 @@ public class UserDTO {
     private String role;
     private Long adoptedDrainId;
 
+    // For JPQL constructor expressions, which select the role as its enum
+    public UserDTO(Long id, String name, String email, User.UserRole role, Long adoptedDrainId) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.role = role.name();
+        this.adoptedDrainId = adoptedDrainId;
+    }
+
     public static UserDTO fromEntity(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
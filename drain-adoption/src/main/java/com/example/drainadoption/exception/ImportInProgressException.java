@@ -0,0 +1,7 @@
+package com.example.drainadoption.exception;
+
+public class ImportInProgressException extends RuntimeException {
+    public ImportInProgressException(String importId) {
+        super(String.format("Import %s is already running", importId));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.drainadoption.exception;
+
+public class ImportNotFoundException extends RuntimeException {
+    public ImportNotFoundException(String importId) {
+        super(String.format("Import not found with id: %s", importId));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.drainadoption.exception;
+
+// Raised after the response when db.statements.budget.mode=fail, so tests see the violation
+public class StatementBudgetExceededException extends RuntimeException {
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
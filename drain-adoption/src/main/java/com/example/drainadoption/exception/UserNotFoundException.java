@@ -0,0 +1,7 @@
+package com.example.drainadoption.exception;
+
+public class UserNotFoundException extends RuntimeException {
+    public UserNotFoundException(Long id) {
+        super(String.format("User not found with id: %d", id));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.drainadoption.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.dto.CacheStatsDTO;
+import com.example.drainadoption.security.ConcurrencyLimitFilter;
+import com.example.drainadoption.security.PasswordHashingService;
+import com.example.drainadoption.security.VerifiedTokenCache;
+import com.example.drainadoption.service.DrainCache;
+import com.example.drainadoption.service.NotificationWriter;
+import com.example.drainadoption.service.UserCache;
+import com.example.drainadoption.service.UserNameCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the statistics behind the {@code /api/admin} stats endpoints as
+ * meters, read from the same stats DTOs at scrape time. Cache meters follow
+ * Micrometer's {@code cache.*} names, tagged with the cache name.
+ */
+@Component
+public class ApplicationStatsMetrics implements MeterBinder {
+
+    private final Map<String, Supplier<CacheStatsDTO>> caches = new LinkedHashMap<>();
+    private final NotificationWriter notificationWriter;
+    private final PasswordHashingService passwordHashingService;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    public ApplicationStatsMetrics(DrainCache drainCache,
+                                   UserCache userCache,
+                                   UserNameCache userNameCache,
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   NotificationWriter notificationWriter,
+                                   PasswordHashingService passwordHashingService,
+                                   ConcurrencyLimitFilter concurrencyLimitFilter) {
+        caches.put("drains", drainCache::stats);
+        caches.put("users", userCache::stats);
+        caches.put("userNames", userNameCache::stats);
+        caches.put("verifiedTokens", verifiedTokenCache::stats);
+        this.notificationWriter = notificationWriter;
+        this.passwordHashingService = passwordHashingService;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        caches.forEach((name, stats) -> bindCache(registry, name, stats));
+
+        counter(registry, "notifications.rolled.back", notificationWriter, writer -> writer.stats().getRolledBack());
+        gauge(registry, "notifications.outbox.depth", notificationWriter, writer -> writer.stats().getDepth());
+        counter(registry, "notifications.outbox.relayed", notificationWriter, writer -> writer.stats().getRelayed());
+        counter(registry, "notifications.written.directly", notificationWriter,
+                writer -> writer.stats().getWrittenDirectly());
+
+        gauge(registry, "auth.password.hashing.active", passwordHashingService,
+                hashing -> hashing.stats().getActive());
+        gauge(registry, "auth.password.hashing.queued", passwordHashingService,
+                hashing -> hashing.stats().getQueued());
+        counter(registry, "auth.password.hashing.rejected", passwordHashingService,
+                hashing -> hashing.stats().getRejected());
+        counter(registry, "auth.password.hashing.rehashed", passwordHashingService,
+                hashing -> hashing.stats().getRehashed());
+
+        for (String route : concurrencyLimitFilter.stats().keySet()) {
+            Gauge.builder("http.concurrency.limit", concurrencyLimitFilter, filter -> filter.stats().get(route).getLimit())
+                    .tag("route", route)
+                    .register(registry);
+            Gauge.builder("http.concurrency.in.flight", concurrencyLimitFilter,
+                            filter -> filter.stats().get(route).getInFlight())
+                    .tag("route", route)
+                    .register(registry);
+            FunctionCounter.builder("http.concurrency.rejected", concurrencyLimitFilter,
+                            filter -> filter.stats().get(route).getRejected())
+                    .description("Requests shed with 503 by the concurrency limit")
+                    .tag("route", route)
+                    .register(registry);
+            FunctionCounter.builder("http.concurrency.backoffs", concurrencyLimitFilter,
+                            filter -> filter.stats().get(route).getBackoffs())
+                    .tag("route", route)
+                    .register(registry);
+        }
+    }
+
+    private static void bindCache(MeterRegistry registry, String name, Supplier<CacheStatsDTO> stats) {
+        Gauge.builder("cache.size", stats, s -> s.get().getSize())
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().getHitCount())
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().getMissCount())
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", stats, s -> s.get().getEvictionCount())
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("cache.load.failures", stats, s -> s.get().getLoadFailureCount())
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).register(registry);
+    }
+}
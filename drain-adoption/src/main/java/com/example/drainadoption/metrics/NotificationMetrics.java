@@ -0,0 +1,45 @@
+package com.example.drainadoption.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.model.Notification.NotificationType;
+import com.example.drainadoption.service.NotificationChangeListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts committed notification writes, by type, so the creation rate is a
+ * {@code rate()} away.
+ */
+@Component
+public class NotificationMetrics implements NotificationChangeListener {
+
+    private final Map<NotificationType, Counter> created = new EnumMap<>(NotificationType.class);
+    private final Counter read;
+
+    public NotificationMetrics(MeterRegistry meterRegistry) {
+        for (NotificationType type : NotificationType.values()) {
+            created.put(type, Counter.builder("notifications.created")
+                    .description("Notifications committed to the database")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.read = Counter.builder("notifications.read")
+                .description("Notifications marked as read")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void notificationsCreated(List<Notification> notifications) {
+        notifications.forEach(notification -> created.get(notification.getType()).increment());
+    }
+
+    @Override
+    public void notificationsRead(long count) {
+        read.increment(count);
+    }
+}
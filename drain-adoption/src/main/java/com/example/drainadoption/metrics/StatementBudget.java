@@ -0,0 +1,25 @@
+package com.example.drainadoption.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many SQL statements one request to a handler method may issue
+ * through Hibernate, counted across the whole request including view
+ * rendering. Checked by {@link StatementBudgetChecker}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    int UNLIMITED = -1;
+
+    int value() default UNLIMITED;
+
+    // For handlers that legitimately repeat a statement, such as chunked batch work
+    boolean allowRepeats() default false;
+}
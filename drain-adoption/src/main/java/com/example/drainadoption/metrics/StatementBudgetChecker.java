@@ -0,0 +1,83 @@
+package com.example.drainadoption.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import com.example.drainadoption.exception.StatementBudgetExceededException;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Checks a finished request's statements against its handler's
+ * {@link StatementBudget}, and against {@code db.statements.repeat-threshold}
+ * for the same statement issued over and over, the usual sign of an N+1 query.
+ *
+ * {@code db.statements.budget.mode} decides what a violation does: {@code log}
+ * (the default) warns, {@code fail} throws
+ * {@link StatementBudgetExceededException} so a test run fails, and
+ * {@code off} skips the check. Violations are also counted as
+ * {@code db.statements.budget.violations}.
+ */
+@Slf4j
+@Component
+public class StatementBudgetChecker {
+
+    enum Mode {
+        OFF,
+        LOG,
+        FAIL
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+    private final int repeatThreshold;
+
+    public StatementBudgetChecker(MeterRegistry meterRegistry,
+                                  @Value("${db.statements.budget.mode:log}") String mode,
+                                  @Value("${db.statements.repeat-threshold:10}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    public void check(HttpServletRequest request, String uri, StatementCounter.Scope scope) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        StatementBudget budget = handler instanceof HandlerMethod method
+                ? method.getMethodAnnotation(StatementBudget.class)
+                : null;
+
+        boolean overBudget = budget != null && budget.value() != StatementBudget.UNLIMITED
+                && scope.count() > budget.value();
+        Map.Entry<String, Integer> repeated = scope.mostRepeated();
+        boolean repeating = (budget == null || !budget.allowRepeats())
+                && repeated != null && repeated.getValue() >= repeatThreshold;
+        if (!overBudget && !repeating) {
+            return;
+        }
+
+        String message = String.format("%s %s issued %d SQL statements", request.getMethod(), uri, scope.count());
+        if (overBudget) {
+            message += String.format(", over its budget of %d", budget.value());
+        }
+        if (repeated != null && repeated.getValue() > 1) {
+            message += String.format("; repeated %d times (possible N+1): %s", repeated.getValue(), repeated.getKey());
+        }
+        violation(uri, overBudget ? "budget" : "repeat", message);
+    }
+
+    private void violation(String uri, String kind, String message) {
+        meterRegistry.counter("db.statements.budget.violations", "uri", uri, "kind", kind).increment();
+        if (mode == Mode.FAIL) {
+            throw new StatementBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.drainadoption.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * {@link Scope} is open. Registered as Hibernate's statement inspector by
+ * {@code MetricsConfig}; statements issued through {@code JdbcTemplate} do
+ * not pass through it and are not counted.
+ */
+@Component
+public class StatementCounter implements StatementInspector {
+
+    public static final String METRIC = "db.statements.per.request";
+
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = current.get();
+        if (scope != null) {
+            scope.count++;
+            scope.shapes.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    // Scopes nest; closing one makes the enclosing scope current again
+    public Scope open() {
+        Scope scope = new Scope(current.get());
+        current.set(scope);
+        return scope;
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final Scope enclosing;
+        // Hibernate's SQL carries ? placeholders, so equal strings are the same statement shape
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int count;
+
+        private Scope(Scope enclosing) {
+            this.enclosing = enclosing;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        // The statement issued most often and how often, or null if none was issued
+        public Map.Entry<String, Integer> mostRepeated() {
+            return shapes.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+        }
+
+        @Override
+        public void close() {
+            if (enclosing == null) {
+                current.remove();
+            } else {
+                enclosing.count += count;
+                shapes.forEach((sql, times) -> enclosing.shapes.merge(sql, times, Integer::sum));
+                current.set(enclosing);
+            }
+        }
+    }
+}
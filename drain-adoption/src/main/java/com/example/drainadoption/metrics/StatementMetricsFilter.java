@@ -0,0 +1,68 @@
+package com.example.drainadoption.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, per method and URI
+ * template, as the {@value StatementCounter#METRIC} summary, and has the
+ * {@link StatementBudgetChecker} check them. Runs ahead of the security chain
+ * so statements issued there are counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    private final StatementCounter statementCounter;
+    private final StatementBudgetChecker statementBudgetChecker;
+    private final MeterRegistry meterRegistry;
+
+    public StatementMetricsFilter(StatementCounter statementCounter,
+                                  StatementBudgetChecker statementBudgetChecker,
+                                  MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.statementBudgetChecker = statementBudgetChecker;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.Scope scope = statementCounter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            record(request, scope);
+        }
+        // Not in the finally block, where a violation would hide the request's own exception
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (uri != null) {
+            statementBudgetChecker.check(request, uri.toString(), scope);
+        }
+    }
+
+    private void record(HttpServletRequest request, StatementCounter.Scope scope) {
+        // Unmatched paths (404s, static probes) would each become a series of their own
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (uri != null) {
+            DistributionSummary.builder(StatementCounter.METRIC)
+                    .description("SQL statements issued through Hibernate per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri.toString())
+                    .register(meterRegistry)
+                    .record(scope.count());
+        }
+    }
+}
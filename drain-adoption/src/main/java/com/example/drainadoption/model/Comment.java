@@ -2,7 +2,11 @@ package com.example.drainadoption.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDateTime;
 
 @Entity
@@ -29,12 +33,19 @@ public class Comment {
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
-    @ManyToOne
+    // Mapped for joins only; lazy so loading a comment never pulls in its author or drain
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "userId", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
     
-    @ManyToOne
+    // Deleting a drain deletes its comments in the database
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "drainId", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Drain drain;
     
     @PrePersist
@@ -1,11 +1,18 @@
 package com.example.drainadoption.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -14,9 +21,14 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 public class Drain {
+
+    // Ids reserved per sequence call; must match the sequence's increment (V6)
+    public static final int ID_BLOCK_SIZE = 50;
+    public static final String ID_SEQUENCE = "drains_id_seq";
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "drain_id")
+    @SequenceGenerator(name = "drain_id", sequenceName = ID_SEQUENCE, allocationSize = ID_BLOCK_SIZE)
     private Long id;
     
     private String name;
@@ -26,7 +38,24 @@ public class Drain {
     private Double latitude;
     
     private Double longitude;
+
+    // Derived from the coordinates on every insert and update; indexed for proximity queries
+    private Long geohash;
     
+    // Unique: the database itself refuses a second drain for the same adopter
     @OneToOne
+    @JoinColumn(name = "adopted_by_user_id", unique = true)
     private User adoptedByUser;
-}
\ No newline at end of file
+
+    // Bumped on every update; bulk UPDATE statements must increment it themselves
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void updateGeohash() {
+        geohash = latitude != null && longitude != null ? Geohash.encode(latitude, longitude) : null;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.drainadoption.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Geohashes stored as 60-bit integers: the 12-character geohash of a point,
+ * with each base32 character's 5 bits packed into a {@code long}. Bits
+ * alternate between longitude and latitude, most significant first, so every
+ * geohash prefix covers one contiguous range of values, and a box on the map
+ * becomes a few range scans on an ordinary B-tree index.
+ */
+public final class Geohash {
+
+    public static final int BITS = 60;
+
+    private static final int LON_BITS = BITS / 2;
+    private static final int LAT_BITS = BITS / 2;
+
+    // Enumerating the cells of a cover costs more than it saves past this many
+    private static final int MAX_COVER_CELLS = 64;
+
+    // Mean Earth radius; distances everywhere in the application are on this sphere
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private Geohash() {
+    }
+
+    /**
+     * Values in {@code [from, to)}; one geohash prefix, or several adjacent ones.
+     */
+    public record Range(long from, long to) {
+
+        public static final Range EMPTY = new Range(0, 0);
+    }
+
+    public static long encode(double latitude, double longitude) {
+        return interleave(quantize(longitude, -180, 360, LON_BITS), quantize(latitude, -90, 180, LAT_BITS));
+    }
+
+    /**
+     * Returns at most {@code maxRanges} ranges that together contain the
+     * geohash of every point in the box, edges inclusive. The cover uses the
+     * finest prefix length that fits in that many ranges, so it overshoots the
+     * box by less than a few cells of that size; callers still compare the
+     * coordinates themselves.
+     */
+    public static List<Range> cover(double minLat, double minLon, double maxLat, double maxLon, int maxRanges) {
+        long fromLon = quantize(minLon, -180, 360, LON_BITS);
+        long toLon = quantize(maxLon, -180, 360, LON_BITS);
+        long fromLat = quantize(minLat, -90, 180, LAT_BITS);
+        long toLat = quantize(maxLat, -90, 180, LAT_BITS);
+
+        for (int bits = BITS; bits > 0; bits--) {
+            // Longitude takes the odd bit of a prefix, so it has the extra one
+            int lonShift = LON_BITS - (bits + 1) / 2;
+            int latShift = LAT_BITS - bits / 2;
+            long columns = (toLon >> lonShift) - (fromLon >> lonShift) + 1;
+            long rows = (toLat >> latShift) - (fromLat >> latShift) + 1;
+            if (columns * rows > MAX_COVER_CELLS) {
+                continue;
+            }
+
+            long[] starts = new long[(int) (columns * rows)];
+            int n = 0;
+            for (long x = fromLon >> lonShift; x <= toLon >> lonShift; x++) {
+                for (long y = fromLat >> latShift; y <= toLat >> latShift; y++) {
+                    starts[n++] = interleave(x << lonShift, y << latShift);
+                }
+            }
+            List<Range> ranges = merge(starts, 1L << (BITS - bits));
+            if (ranges.size() <= maxRanges) {
+                return ranges;
+            }
+        }
+        return List.of(new Range(0, 1L << BITS));
+    }
+
+    /**
+     * Boxes, as {@code {minLat, minLon, maxLat, maxLon}}, that together contain
+     * the circle around the point. A circle across the antimeridian gives two.
+     */
+    public static List<double[]> boundingBoxes(double latitude, double longitude, double radiusKm) {
+        double angle = radiusKm / EARTH_RADIUS_KM;
+        double minLat = latitude - Math.toDegrees(angle);
+        double maxLat = latitude + Math.toDegrees(angle);
+        if (minLat <= -90 || maxLat >= 90) {
+            // Contains a pole: every longitude is in reach
+            return List.of(new double[] {Math.max(minLat, -90), -180, Math.min(maxLat, 90), 180});
+        }
+
+        double spread = Math.toDegrees(Math.asin(
+                Math.min(1.0, Math.sin(angle) / Math.cos(Math.toRadians(latitude)))));
+        double minLon = longitude - spread;
+        double maxLon = longitude + spread;
+        if (minLon < -180) {
+            return List.of(new double[] {minLat, minLon + 360, maxLat, 180},
+                           new double[] {minLat, -180, maxLat, maxLon});
+        }
+        if (maxLon > 180) {
+            return List.of(new double[] {minLat, minLon, maxLat, 180},
+                           new double[] {minLat, -180, maxLat, maxLon - 360});
+        }
+        return List.of(new double[] {minLat, minLon, maxLat, maxLon});
+    }
+
+    // Great-circle distance
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // Index of the cell holding the value when [min, min + span] is split into 2^bits cells
+    private static long quantize(double value, double min, double span, int bits) {
+        long cells = 1L << bits;
+        long cell = (long) Math.floor((value - min) / span * cells);
+        return Math.max(0, Math.min(cells - 1, cell));
+    }
+
+    private static long interleave(long lon, long lat) {
+        long code = 0;
+        for (int i = LON_BITS - 1; i >= 0; i--) {
+            code = (code << 1) | ((lon >>> i) & 1);
+            code = (code << 1) | ((lat >>> i) & 1);
+        }
+        return code;
+    }
+
+    // Sorted starts of equal-sized cells; neighbours along the curve become one range
+    private static List<Range> merge(long[] starts, long size) {
+        Arrays.sort(starts);
+        List<Range> ranges = new ArrayList<>();
+        long from = starts[0];
+        long to = from + size;
+        for (int i = 1; i < starts.length; i++) {
+            if (starts[i] != to) {
+                ranges.add(new Range(from, to));
+                from = starts[i];
+            }
+            to = starts[i] + size;
+        }
+        ranges.add(new Range(from, to));
+        return ranges;
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.drainadoption.model;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDateTime;
 
 @Entity
@@ -10,6 +15,8 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 public class Notification {
+
+    public static final String ID_SEQUENCE = "notifications_id_seq";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +33,15 @@ public class Notification {
     private Long drainId;
     
     private Long userId; // The user who triggered the notification (adopter or commenter)
+
+    // Mapped only for the foreign key, so deleting a drain deletes its notifications in the database
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "drainId", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Drain drain;
     
     @Column(nullable = false)
     private Boolean read = false;
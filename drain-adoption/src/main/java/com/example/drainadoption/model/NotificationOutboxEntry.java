@@ -0,0 +1,54 @@
+package com.example.drainadoption.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import com.example.drainadoption.model.Notification.NotificationType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification written in the transaction of the change it reports and not
+ * yet relayed into the notifications table. Rows are only written and deleted
+ * with JDBC; the mapping describes the table for schema generation and
+ * validation.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Data
+@NoArgsConstructor
+public class NotificationOutboxEntry {
+
+    // Drawn from the notifications sequence, so the relayed row keeps the id
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_id")
+    @SequenceGenerator(name = "notification_id", sequenceName = Notification.ID_SEQUENCE, allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Column(nullable = false)
+    private Long drainId;
+
+    private Long userId;
+
+    // Deleting a drain deletes its pending notifications, which could no longer be relayed
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "drainId", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Drain drain;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
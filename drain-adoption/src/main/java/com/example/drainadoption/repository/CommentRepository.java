@@ -1,15 +1,34 @@
 package com.example.drainadoption.repository;
 
+import com.example.drainadoption.dto.CommentDTO;
 import com.example.drainadoption.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByDrainIdOrderByCreatedAtDesc(Long drainId);
-    
-    @Transactional
-    void deleteByDrainId(Long drainId);
+
+    // Comments with their author's name in one statement, newest first
+    @Query("select new com.example.drainadoption.dto.CommentDTO(c.id, c.drainId, c.userId, " +
+           "case when u.email is null then 'Unknown User' else u.name end, c.text, c.imageUrl, c.createdAt) " +
+           "from Comment c left join c.user u where c.drainId = :drainId " +
+           "order by c.createdAt desc, c.id desc")
+    List<CommentDTO> findDTOsByDrainId(@Param("drainId") Long drainId, Pageable pageable);
+
+    // Keyset page over (createdAt, id) following the given position. The plain
+    // createdAt bound is redundant, but unlike the OR it becomes an index condition
+    @Query("select new com.example.drainadoption.dto.CommentDTO(c.id, c.drainId, c.userId, " +
+           "case when u.email is null then 'Unknown User' else u.name end, c.text, c.imageUrl, c.createdAt) " +
+           "from Comment c left join c.user u where c.drainId = :drainId and c.createdAt <= :createdAt " +
+           "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)) " +
+           "order by c.createdAt desc, c.id desc")
+    List<CommentDTO> findDTOPageAfter(@Param("drainId") Long drainId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package com.example.drainadoption.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import com.example.drainadoption.model.DrainImport;
+
+@Repository
+public interface DrainImportRepository extends JpaRepository<DrainImport, String> {
+}
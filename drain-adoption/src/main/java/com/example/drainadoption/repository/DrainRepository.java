@@ -1,9 +1,170 @@
 package com.example.drainadoption.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.drainadoption.dto.DrainDTO;
 import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.Geohash;
+import com.example.drainadoption.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DrainRepository extends JpaRepository<Drain, Long> {
-}
\ No newline at end of file
+
+    // Few enough that a query stays one index scan per range, enough to hug the box
+    int GEOHASH_RANGES = 4;
+
+    // List read model: DTOs from a single join, no entities hydrated or dirty-checked
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.example.drainadoption.dto.DrainDTO(d.id, d.name, d.imageUrl, d.latitude, " +
+           "d.longitude, u.id, d.version) from Drain d left join d.adoptedByUser u order by d.id")
+    List<DrainDTO> findAllDTOs();
+
+    // Keyset page: drains after the given id, size taken from the pageable
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.example.drainadoption.dto.DrainDTO(d.id, d.name, d.imageUrl, d.latitude, " +
+           "d.longitude, u.id, d.version) from Drain d left join d.adoptedByUser u " +
+           "where d.id > :afterId order by d.id")
+    List<DrainDTO> findDTOsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Drains inside the box, edges inclusive, in no particular order. The
+     * database walks at most {@link #GEOHASH_RANGES} ranges of the geohash
+     * index and checks the coordinates of what it finds there.
+     */
+    default List<DrainDTO> findDTOsWithin(double minLat, double minLon, double maxLat, double maxLon) {
+        List<Geohash.Range> ranges = new ArrayList<>(Geohash.cover(minLat, minLon, maxLat, maxLon, GEOHASH_RANGES));
+        while (ranges.size() < GEOHASH_RANGES) {
+            ranges.add(Geohash.Range.EMPTY);
+        }
+        return findDTOsInGeohashRanges(
+                ranges.get(0).from(), ranges.get(0).to(), ranges.get(1).from(), ranges.get(1).to(),
+                ranges.get(2).from(), ranges.get(2).to(), ranges.get(3).from(), ranges.get(3).to(),
+                minLat, minLon, maxLat, maxLon);
+    }
+
+    /**
+     * Drains within {@code radiusKm} of the point, nearest first: the box
+     * query over the circle's bounding boxes, then the exact distance.
+     */
+    default List<DrainDTO> findDTOsWithinRadius(double latitude, double longitude, double radiusKm) {
+        List<DrainDTO> drains = new ArrayList<>();
+        for (double[] box : Geohash.boundingBoxes(latitude, longitude, radiusKm)) {
+            drains.addAll(findDTOsWithin(box[0], box[1], box[2], box[3]));
+        }
+        Map<Long, Double> distances = new HashMap<>();
+        drains.forEach(drain -> distances.put(drain.getId(),
+                Geohash.distanceKm(latitude, longitude, drain.getLatitude(), drain.getLongitude())));
+        drains.removeIf(drain -> distances.get(drain.getId()) > radiusKm);
+        drains.sort(Comparator.comparingDouble(drain -> distances.get(drain.getId())));
+        return drains;
+    }
+
+    // Unused range slots are passed as empty ranges
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.example.drainadoption.dto.DrainDTO(d.id, d.name, d.imageUrl, d.latitude, " +
+           "d.longitude, u.id, d.version) from Drain d left join d.adoptedByUser u " +
+           "where (d.geohash >= :from0 and d.geohash < :to0 or d.geohash >= :from1 and d.geohash < :to1 " +
+           "or d.geohash >= :from2 and d.geohash < :to2 or d.geohash >= :from3 and d.geohash < :to3) " +
+           "and d.latitude between :minLat and :maxLat and d.longitude between :minLon and :maxLon")
+    List<DrainDTO> findDTOsInGeohashRanges(@Param("from0") long from0, @Param("to0") long to0,
+                                           @Param("from1") long from1, @Param("to1") long to1,
+                                           @Param("from2") long from2, @Param("to2") long to2,
+                                           @Param("from3") long from3, @Param("to3") long to3,
+                                           @Param("minLat") double minLat, @Param("minLon") double minLon,
+                                           @Param("maxLat") double maxLat, @Param("maxLon") double maxLon);
+
+    // Coordinates and adoption state only, used to build the in-memory spatial index
+    @Query("select d.id as id, d.latitude as latitude, d.longitude as longitude, " +
+           "u.id as adoptedByUserId from Drain d left join d.adoptedByUser u")
+    List<DrainLocation> findAllLocations();
+
+    // Forward-only cursor over the whole catalogue as DTOs; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.drainadoption.dto.DrainDTO(d.id, d.name, d.imageUrl, d.latitude, " +
+           "d.longitude, u.id, d.version) from Drain d left join d.adoptedByUser u order by d.id")
+    Stream<DrainDTO> streamAllForExport();
+
+    // Sets the adopter only if the drain is still free; returns the number of rows claimed (0 or 1)
+    @Modifying
+    @Query("update Drain d set d.adoptedByUser = :adopter, d.version = d.version + 1 " +
+           "where d.id = :drainId and d.adoptedByUser is null")
+    int claimAdoption(@Param("drainId") Long drainId, @Param("adopter") User adopter);
+
+    // Row version only, e.g. read back after a conditional update in the same transaction
+    @Query("select d.version from Drain d where d.id = :drainId")
+    Optional<Long> findVersionById(@Param("drainId") Long drainId);
+
+    // Clears the adopter only if it is still the given user
+    @Modifying
+    @Query("update Drain d set d.adoptedByUser = null, d.version = d.version + 1 " +
+           "where d.id = :drainId and d.adoptedByUser.id = :adopterId")
+    int releaseAdoption(@Param("drainId") Long drainId, @Param("adopterId") Long adopterId);
+
+    @Query("select d.id as id, d.latitude as latitude, d.longitude as longitude, u.id as adoptedByUserId " +
+           "from Drain d left join d.adoptedByUser u where d.id = :drainId")
+    Optional<DrainLocation> findLocationById(@Param("drainId") Long drainId);
+
+    @Query("select d.id as id, d.latitude as latitude, d.longitude as longitude, u.id as adoptedByUserId " +
+           "from Drain d left join d.adoptedByUser u where d.id in :ids")
+    List<DrainLocation> findLocationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Locks the rows until the transaction ends, so their adopters cannot change before a release or
+    // delete; no join, which PostgreSQL cannot lock on its nullable side, and in id order, so two
+    // batches over the same drains lock them in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d.id as id, d.latitude as latitude, d.longitude as longitude, " +
+           "d.adoptedByUser.id as adoptedByUserId from Drain d where d.id in :ids order by d.id")
+    List<DrainLocation> lockLocationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Set-based batch statements; the database cascades deletes to comments and notifications
+
+    @Modifying
+    @Query("delete from Drain d where d.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Drain d set d.adoptedByUser = null, d.version = d.version + 1 " +
+           "where d.id in :ids and d.adoptedByUser is not null")
+    int releaseAdoptions(@Param("ids") Collection<Long> ids);
+
+    // Null arguments leave the column unchanged
+    @Modifying
+    @Query("update Drain d set d.name = coalesce(cast(:name as String), d.name), " +
+           "d.imageUrl = coalesce(cast(:imageUrl as String), d.imageUrl), " +
+           "d.version = d.version + 1 where d.id in :ids")
+    int updateDetails(@Param("ids") Collection<Long> ids, @Param("name") String name,
+                      @Param("imageUrl") String imageUrl);
+
+    interface DrainLocation {
+        Long getId();
+        Double getLatitude();
+        Double getLongitude();
+        Long getAdoptedByUserId();
+    }
+}
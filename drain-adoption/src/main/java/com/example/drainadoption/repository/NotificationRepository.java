@@ -1,16 +1,51 @@
 package com.example.drainadoption.repository;
 
 import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.model.Notification.NotificationType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findAllByOrderByCreatedAtDesc();
     Long countByReadFalse();
-    
+
+    // Newest first, optionally of one type
+    @Query("select n from Notification n where (:type is null or n.type = :type) " +
+           "order by n.createdAt desc, n.id desc")
+    List<Notification> findPage(@Param("type") NotificationType type, Pageable pageable);
+
+    // Keyset page over (createdAt, id) following the given position
+    @Query("select n from Notification n where (:type is null or n.type = :type) " +
+           "and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id)) " +
+           "order by n.createdAt desc, n.id desc")
+    List<Notification> findPageAfter(@Param("type") NotificationType type,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    // Bulk mark-read statements; each returns the number of rows that were unread
+
+    @Transactional
+    @Modifying
+    @Query("update Notification n set n.read = true where n.read = false")
+    int markAllRead();
+
+    @Transactional
+    @Modifying
+    @Query("update Notification n set n.read = true where n.read = false and n.id in :ids")
+    int markReadByIds(@Param("ids") Collection<Long> ids);
+
     @Transactional
-    void deleteByDrainId(Long drainId);
+    @Modifying
+    @Query("update Notification n set n.read = true where n.read = false and n.createdAt < :before")
+    int markReadOlderThan(@Param("before") LocalDateTime before);
 }
@@ -1,12 +1,53 @@
 package com.example.drainadoption.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.drainadoption.dto.UserDTO;
 import com.example.drainadoption.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // The user with the adopted drain in one statement, instead of a second for the inverse one-to-one
+    @Query("select u from User u left join fetch u.adoptedDrain where u.email = :email")
+    Optional<User> findWithAdoptedDrainByEmail(@Param("email") String email);
+
+    // Replaces the hash only if it is still the one that was checked; returns the rows updated
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :rehashed where u.id = :id and u.password = :checked")
+    int replacePassword(@Param("id") Long id, @Param("checked") String checked, @Param("rehashed") String rehashed);
+
+    boolean existsByRole(User.UserRole role);
+
+    // Display name only; empty when the user does not exist
+    @Query("select coalesce(u.name, '') from User u where u.id = :id")
+    Optional<String> findNameById(@Param("id") Long id);
+
+    // List read model: the adopted drain comes from the join, not the inverse one-to-one
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.example.drainadoption.dto.UserDTO(u.id, u.name, u.email, u.role, d.id) " +
+           "from User u left join Drain d on d.adoptedByUser = u order by u.id")
+    List<UserDTO> findAllDTOs();
+
+    // Keyset page: users after the given id, size taken from the pageable
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.example.drainadoption.dto.UserDTO(u.id, u.name, u.email, u.role, d.id) " +
+           "from User u left join Drain d on d.adoptedByUser = u where u.id > :afterId order by u.id")
+    List<UserDTO> findDTOsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
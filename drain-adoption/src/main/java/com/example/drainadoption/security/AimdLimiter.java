@@ -0,0 +1,102 @@
+package com.example.drainadoption.security;
+
+import com.example.drainadoption.dto.ConcurrencyLimitStatsDTO;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that grows by one per request finishing within the
+ * latency threshold while the limit is in use, and shrinks by ten percent
+ * when one finishes above it (additive increase, multiplicative decrease).
+ *
+ * Backoff happens at most once per threshold interval, so one congestion
+ * episode, seen by every request caught in it, shrinks the limit once. A route
+ * class that is not {@linkplain RouteClass#isAdaptive() adaptive} keeps its
+ * initial limit.
+ */
+final class AimdLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final RouteClass routeClass;
+    private final long thresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock; readers use the rounded copy
+    private double limit;
+    private long lastBackoffNanos;
+    private volatile int currentLimit;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder backoffs = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    AimdLimiter(RouteClass routeClass) {
+        this.routeClass = routeClass;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(routeClass.getLatencyThresholdMillis());
+        this.limit = routeClass.getInitialLimit();
+        this.currentLimit = routeClass.getInitialLimit();
+        this.lastBackoffNanos = System.nanoTime() - thresholdNanos;
+    }
+
+    boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    void release(long startNanos) {
+        long now = System.nanoTime();
+        long latency = now - startNanos;
+        int inFlightBefore = inFlight.getAndDecrement();
+        completed.increment();
+        latencyNanos.add(latency);
+        if (!routeClass.isAdaptive()) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (latency > thresholdNanos) {
+                if (now - lastBackoffNanos >= thresholdNanos) {
+                    limit = Math.max(routeClass.getMinLimit(), limit * BACKOFF_RATIO);
+                    lastBackoffNanos = now;
+                    backoffs.increment();
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                // Only grow a limit that is actually being used
+                limit = Math.min(routeClass.getMaxLimit(), limit + 1);
+            }
+            currentLimit = (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    ConcurrencyLimitStatsDTO stats() {
+        ConcurrencyLimitStatsDTO dto = new ConcurrencyLimitStatsDTO();
+        long completedCount = completed.sum();
+        dto.setLimit(currentLimit);
+        dto.setInFlight(inFlight.get());
+        dto.setAccepted(accepted.sum());
+        dto.setRejected(rejected.sum());
+        dto.setBackoffs(backoffs.sum());
+        dto.setAverageLatencyMillis(completedCount == 0 ? 0 : latencyNanos.sum() / (double) completedCount / 1_000_000.0);
+        dto.setLatencyThresholdMillis(routeClass.getLatencyThresholdMillis());
+        return dto;
+    }
+}
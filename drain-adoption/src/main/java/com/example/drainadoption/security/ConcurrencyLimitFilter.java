@@ -0,0 +1,87 @@
+package com.example.drainadoption.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import com.example.drainadoption.dto.ConcurrencyLimitStatsDTO;
+import com.example.drainadoption.dto.ErrorResponse;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caps concurrent requests per {@link RouteClass} with an {@link AimdLimiter},
+ * so a surge in one class (say, admin bulk operations) is shed with an
+ * immediate 503 instead of taking request threads from cheap public reads.
+ *
+ * Runs ahead of {@link JwtAuthenticationFilter}, so shed requests cost no
+ * token verification. CORS preflights are not limited.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Map<RouteClass, AimdLimiter> limiters = new EnumMap<>(RouteClass.class);
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                  @Value("${limits.concurrency.enabled:true}") boolean enabled) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        for (RouteClass routeClass : RouteClass.values()) {
+            limiters.put(routeClass, new AimdLimiter(routeClass));
+        }
+    }
+
+    public Map<String, ConcurrencyLimitStatsDTO> stats() {
+        Map<String, ConcurrencyLimitStatsDTO> stats = new LinkedHashMap<>();
+        limiters.forEach((routeClass, limiter) -> stats.put(routeClass.name(), limiter.stats()));
+        return stats;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AimdLimiter limiter = limiters.get(RouteClass.of(request));
+        if (!limiter.tryAcquire()) {
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(start);
+        }
+    }
+
+    // Written here rather than via sendError, whose /error dispatch would be re-authorized
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse body = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Service Unavailable",
+            "Server is busy, please retry shortly",
+            "uri=" + request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
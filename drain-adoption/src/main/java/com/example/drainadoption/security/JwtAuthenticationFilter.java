@@ -1,5 +1,7 @@
 package com.example.drainadoption.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,43 +21,50 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
+        final String jwt = authHeader.substring(7);
         
+        // Times token verification only, not the rest of the chain
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "rejected";
         try {
-            userEmail = jwtUtil.extractEmail(jwt);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // One verification yields every claim; repeat tokens come from the cache
+                VerifiedToken token = verifiedTokenCache.verify(jwt);
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtil.validateToken(jwt, userEmail)) {
-                    String role = jwtUtil.extractRole(jwt);
-                    
+                if (token.email() != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userEmail,
+                            token.email(),
                             null,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + token.role()))
                     );
                     
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = "authenticated";
                 }
+            } else {
+                outcome = "skipped";
             }
         } catch (Exception e) {
             // Invalid token, continue without authentication
         }
+        sample.stop(meterRegistry.timer("security.jwt.verification", "outcome", outcome));
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,180 @@
+package com.example.drainadoption.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.dto.PasswordHashingStatsDTO;
+import com.example.drainadoption.exception.PasswordHashingBusyException;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt hashing and verification on a small dedicated pool, so a login
+ * burst uses at most {@code auth.hashing.threads} cores and cannot starve the
+ * request threads serving everything else.
+ *
+ * Work beyond the pool and its bounded queue is rejected at once with
+ * {@link PasswordHashingBusyException} (503) instead of piling up behind it.
+ */
+@Component
+public class PasswordHashingService implements DisposableBean {
+
+    // "$2a$10$<salt and hash>": version, then the two-digit cost
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\$2[abxy]?\\$(\\d{2})\\$.*");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${auth.bcrypt.strength:10}") int strength,
+                                  @Value("${auth.hashing.threads:0}") int threads,
+                                  @Value("${auth.hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.queueCapacity = queueCapacity;
+        this.encodeTimer = hashingTimer(meterRegistry, "encode");
+        this.matchesTimer = hashingTimer(meterRegistry, "matches");
+        this.queueWaitTimer = Timer.builder("auth.password.hashing.queue")
+                .description("Time BCrypt work waits for a hashing thread")
+                .register(meterRegistry);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Returns a fresh hash when the stored one was made with any strength other
+     * than {@code auth.bcrypt.strength}, so lowering the setting takes effect
+     * too. Call only after the password has matched.
+     */
+    public Optional<String> rehashIfOutdated(CharSequence rawPassword, String encodedPassword) {
+        if (bcryptCost(encodedPassword) == strength) {
+            return Optional.empty();
+        }
+        String upgraded = encode(rawPassword);
+        rehashed.increment();
+        return Optional.of(upgraded);
+    }
+
+    public PasswordHashingStatsDTO stats() {
+        PasswordHashingStatsDTO dto = new PasswordHashingStatsDTO();
+        long startedCount = started.sum();
+        long finishedCount = finished.sum();
+        dto.setThreads(executor.getMaximumPoolSize());
+        dto.setActive(executor.getActiveCount());
+        dto.setQueued(executor.getQueue().size());
+        dto.setQueueCapacity(queueCapacity);
+        dto.setCompleted(finishedCount);
+        dto.setRejected(rejected.sum());
+        dto.setRehashed(rehashed.sum());
+        dto.setAverageQueueWaitMillis(startedCount == 0 ? 0 : queueWaitNanos.sum() / (double) startedCount / 1_000_000.0);
+        dto.setMaxQueueWaitMillis(maxQueueWaitNanos.get() / 1_000_000.0);
+        dto.setAverageHashMillis(finishedCount == 0 ? 0 : hashNanos.sum() / (double) finishedCount / 1_000_000.0);
+        dto.setMaxHashMillis(maxHashNanos.get() / 1_000_000.0);
+        return dto;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Supplier<T> hashing) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                record(started, queueWaitNanos, maxQueueWaitNanos, startedAt - queuedAt);
+                queueWaitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return hashing.get();
+                } finally {
+                    long hashed = System.nanoTime() - startedAt;
+                    record(finished, hashNanos, maxHashNanos, hashed);
+                    timer.record(hashed, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hashing")
+                .description("BCrypt time on the hashing pool, excluding the queue wait")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static void record(LongAdder count, LongAdder total, AtomicLong max, long nanos) {
+        count.increment();
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    // Cost of a BCrypt hash, or -1 for anything else
+    private static int bcryptCost(String encodedPassword) {
+        Matcher matcher = encodedPassword == null ? null : BCRYPT_COST.matcher(encodedPassword);
+        return matcher != null && matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.drainadoption.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Groups endpoints by cost and audience for {@link ConcurrencyLimitFilter}, each
+ * with its own starting limit, bounds and the latency above which it backs off.
+ * A class without a latency threshold keeps its initial limit.
+ */
+public enum RouteClass {
+    PUBLIC_READ(100, 10, 400, 250),
+    // Full catalogue exports run for minutes; a pool of their own keeps them from
+    // crowding out the map and comment reads every page view makes
+    EXPORT(4, 4, 4, 0),
+    // Event streams and the unpaged admin lists: they take as long as the data
+    // they send, so their latency says nothing about overload
+    BULK_READ(8, 8, 8, 0),
+    ADOPTER_WRITE(40, 4, 200, 500),
+    ADMIN(10, 2, 50, 2000),
+    AUTH(20, 2, 100, 1000);
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdMillis;
+
+    RouteClass(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdMillis = latencyThresholdMillis;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public long getLatencyThresholdMillis() {
+        return latencyThresholdMillis;
+    }
+
+    public boolean isAdaptive() {
+        return latencyThresholdMillis > 0;
+    }
+
+    // Mirrors the access rules in SecurityConfig
+    public static RouteClass of(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (read && path.equals("/api/drains/export")) {
+            return EXPORT;
+        }
+        if (read && isBulk(request, path)) {
+            return BULK_READ;
+        }
+        if (path.startsWith("/api/admin/") || path.startsWith("/api/notifications")
+                || path.equals("/api/drains/imports") || path.startsWith("/api/drains/imports/")) {
+            return ADMIN;
+        }
+        if (read) {
+            return PUBLIC_READ;
+        }
+        if (path.startsWith("/api/drains")) {
+            boolean adopterWrite = path.endsWith("/adopt") || path.contains("/comments");
+            return adopterWrite ? ADOPTER_WRITE : ADMIN;
+        }
+        return ADOPTER_WRITE;
+    }
+
+    // The admin lists return everything unless asked for a page or a type. The
+    // unpaged drain and comment lists stay public reads: the map and every comment
+    // box load them, and the drain list is mostly answered by ETag revalidation
+    private static boolean isBulk(HttpServletRequest request, String path) {
+        if (path.equals("/api/notifications/stream")) {
+            return true;
+        }
+        boolean list = path.equals("/api/users") || path.equals("/api/notifications");
+        return list && request.getParameter("limit") == null && request.getParameter("cursor") == null
+                && request.getParameter("type") == null;
+    }
+}
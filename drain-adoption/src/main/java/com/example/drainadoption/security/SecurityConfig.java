@@ -1,5 +1,8 @@
 package com.example.drainadoption.security;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -21,9 +24,11 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, ConcurrencyLimitFilter concurrencyLimitFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
     }
 
     @Bean
@@ -33,6 +38,12 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Completion of an already authorized async request, e.g. a timed out notification stream
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                // Bulk drain imports and their progress (admin only, ahead of the public drain reads)
+                .requestMatchers("/api/drains/imports", "/api/drains/imports/**").hasRole("ADMIN")
+
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/drains", "/api/drains/**").permitAll()
@@ -54,6 +65,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/api/drains/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/drains/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/drains/*/reset-adoption").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/drains/batch/**").hasRole("ADMIN")
                 
                 // Adopter endpoints (both ADMIN and ADOPTER can adopt)
                 .requestMatchers(HttpMethod.POST, "/api/drains/*/adopt").hasAnyRole("ADMIN", "ADOPTER")
@@ -61,14 +73,24 @@ public class SecurityConfig {
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // Limit only inside the security chain, after CORS, so browsers can read the 503
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration() {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(concurrencyLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    // Changing the strength, up or down, re-hashes existing passwords as their owners next log in
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
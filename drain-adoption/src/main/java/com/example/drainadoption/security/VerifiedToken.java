@@ -0,0 +1,13 @@
+package com.example.drainadoption.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiry have been checked.
+ */
+public record VerifiedToken(String email, Long userId, String role, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
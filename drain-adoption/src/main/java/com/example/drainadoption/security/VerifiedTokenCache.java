@@ -0,0 +1,89 @@
+package com.example.drainadoption.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.dto.CacheStatsDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers tokens that already passed {@link JwtUtil#verify(String)}, so a
+ * client sending the same token on every request pays for one HMAC check and
+ * JSON parse, not one per request.
+ *
+ * Entries expire with their token. Keys are SHA-256 digests, so the cache
+ * never holds usable bearer tokens. Invalid tokens are not cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<ByteBuffer, VerifiedToken> tokens;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${cache.jwt.max-size:10000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @throws io.jsonwebtoken.JwtException if the token does not verify
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken verified = tokens.get(digest(token), key -> jwtUtil.verify(token));
+        // Expiry is re-checked here; the cache's own clock only bounds how long entries linger
+        if (verified.isExpired(Instant.now())) {
+            return jwtUtil.verify(token);
+        }
+        return verified;
+    }
+
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.fromCache(tokens);
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken token, long currentTime) {
+            if (token.expiresAt() == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMillis = token.expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken token, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken token, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
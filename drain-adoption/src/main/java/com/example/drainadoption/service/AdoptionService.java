@@ -0,0 +1,155 @@
+package com.example.drainadoption.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.drainadoption.dto.DrainDTO;
+import com.example.drainadoption.dto.UserDTO;
+import com.example.drainadoption.exception.AdoptionConflictException;
+import com.example.drainadoption.exception.DrainNotFoundException;
+import com.example.drainadoption.exception.UserNotFoundException;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.Notification.NotificationType;
+import com.example.drainadoption.repository.DrainRepository;
+import com.example.drainadoption.repository.DrainRepository.DrainLocation;
+import com.example.drainadoption.repository.UserRepository;
+
+/**
+ * Adopts drains with a single conditional UPDATE, so concurrent adopters of the
+ * same drain are decided by the database rather than by a read-check-write in
+ * the application. The unique key on {@code drains.adopted_by_user_id} stops one
+ * user from winning two drains at once.
+ *
+ * The common path is the UPDATE, a read of the version it wrote and the admin
+ * notification's INSERT, in one transaction through {@link NotificationWriter};
+ * the rest of the drain is only read back when the UPDATE claims nothing, to
+ * explain why.
+ */
+@Service
+public class AdoptionService {
+
+    // Claims retried after the drain was found free again or an orphaned adopter was cleared
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DrainRepository drainRepository;
+    private final UserRepository userRepository;
+    private final NotificationWriter notificationWriter;
+    private final DrainCache drainCache;
+    private final UserCache userCache;
+    private final DrainChangePublisher drainChangePublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public AdoptionService(DrainRepository drainRepository,
+                           UserRepository userRepository,
+                           NotificationWriter notificationWriter,
+                           DrainCache drainCache,
+                           UserCache userCache,
+                           DrainChangePublisher drainChangePublisher,
+                           TransactionTemplate transactionTemplate) {
+        this.drainRepository = drainRepository;
+        this.userRepository = userRepository;
+        this.notificationWriter = notificationWriter;
+        this.drainCache = drainCache;
+        this.userCache = userCache;
+        this.drainChangePublisher = drainChangePublisher;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Makes {@code userId} the adopter of {@code drainId}.
+     *
+     * @throws DrainNotFoundException if the drain does not exist
+     * @throws UserNotFoundException if the user does not exist
+     * @throws AdoptionConflictException if the drain or the user is already taken
+     */
+    public DrainDTO adopt(Long drainId, Long userId) {
+        // Cheap rejections from the caches; the UPDATE below is what actually decides
+        UserDTO user = userCache.find(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+        if (user.getAdoptedDrainId() != null) {
+            throw new AdoptionConflictException("User has already adopted drain with ID: " +
+                user.getAdoptedDrainId());
+        }
+        DrainDTO drain = drainCache.find(drainId)
+                .orElseThrow(() -> new DrainNotFoundException(drainId));
+
+        Long version;
+        for (int attempt = 1; ; attempt++) {
+            version = claim(drain, user);
+            if (version != null) {
+                break;
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                throw new AdoptionConflictException("Drain is already adopted");
+            }
+            explainLostClaim(drainId);
+        }
+
+        userCache.invalidate(userId);
+        drainChangePublisher.drainSaved(adoptedDrain(drain, userId, version));
+
+        return new DrainDTO(drain.getId(), drain.getName(), drain.getImageUrl(),
+                drain.getLatitude(), drain.getLongitude(), userId, version);
+    }
+
+    /**
+     * Returns the drain's version after the claim, or null when the drain was
+     * not free. The version is read under the row lock the UPDATE holds, so it
+     * is the one the claim wrote, whatever the cached snapshot says.
+     */
+    private Long claim(DrainDTO drain, UserDTO user) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (drainRepository.claimAdoption(drain.getId(), userRepository.getReferenceById(user.getId())) == 0) {
+                    return null;
+                }
+                Long version = drainRepository.findVersionById(drain.getId()).orElseThrow();
+                notificationWriter.write(NotificationType.DRAIN_ADOPTED,
+                        user.getName() + " adopted drain: " + drain.getName(), drain.getId(), user.getId());
+                return version;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Unique adopter key or adopter foreign key: the user won another drain or was deleted
+            userCache.invalidate(user.getId());
+            if (!userRepository.existsById(user.getId())) {
+                throw new UserNotFoundException(user.getId());
+            }
+            throw new AdoptionConflictException("User has already adopted another drain");
+        }
+    }
+
+    /**
+     * Reads the drain after a claim that updated nothing. Returns normally when
+     * the claim is worth retrying, otherwise throws the reason it failed.
+     */
+    private void explainLostClaim(Long drainId) {
+        // The cached snapshot said the drain was free, so it is stale either way
+        drainCache.invalidate(drainId);
+
+        DrainLocation current = drainRepository.findLocationById(drainId)
+                .orElseThrow(() -> new DrainNotFoundException(drainId));
+        Long adopterId = current.getAdoptedByUserId();
+        if (adopterId == null) {
+            // Released between the UPDATE and this read
+            return;
+        }
+        if (userRepository.existsById(adopterId)) {
+            throw new AdoptionConflictException("Drain is already adopted by user with ID: " + adopterId);
+        }
+        // Orphaned adoption left by a deleted user; clear it only if nobody replaced it meanwhile
+        transactionTemplate.executeWithoutResult(status -> drainRepository.releaseAdoption(drainId, adopterId));
+    }
+
+    // Listeners only read identity, coordinates and whether the drain is adopted
+    private Drain adoptedDrain(DrainDTO drain, Long userId, Long version) {
+        Drain adopted = new Drain();
+        adopted.setId(drain.getId());
+        adopted.setName(drain.getName());
+        adopted.setImageUrl(drain.getImageUrl());
+        adopted.setLatitude(drain.getLatitude());
+        adopted.setLongitude(drain.getLongitude());
+        adopted.setAdoptedByUser(userRepository.getReferenceById(userId));
+        adopted.setVersion(version);
+        return adopted;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.drainadoption.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Loads cache misses on the calling thread, outside the cache's locks.
+ *
+ * {@code Cache.get(key, loader)} runs the loader inside a synchronized
+ * {@code ConcurrentHashMap} compute, which pins a virtual thread to its
+ * carrier for the whole database round trip. Here the cache only holds a
+ * placeholder future while the caller loads; concurrent callers for the same
+ * key wait on it, and an invalidation during the load discards it.
+ */
+final class CallerLoads {
+
+    private CallerLoads() {
+    }
+
+    static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> placeholder = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> placeholder);
+        if (future == placeholder) {
+            complete(placeholder, () -> loader.apply(key));
+        }
+        return join(future);
+    }
+
+    // Missing keys are absent from the result, as with Cache.getAll
+    static <K, V> Map<K, V> getAll(AsyncCache<K, V> cache, Iterable<? extends K> keys,
+                                   Function<? super Set<? extends K>, ? extends Map<K, V>> loader) {
+        CompletableFuture<Map<K, V>> placeholder = new CompletableFuture<>();
+        @SuppressWarnings("unchecked")
+        Set<? extends K>[] missing = new Set[1];
+        CompletableFuture<Map<K, V>> future = cache.getAll(keys, (missingKeys, executor) -> {
+            missing[0] = missingKeys;
+            return placeholder;
+        });
+        if (missing[0] != null) {
+            complete(placeholder, () -> loader.apply(missing[0]));
+        }
+        return join(future);
+    }
+
+    private static <T> void complete(CompletableFuture<T> placeholder, Supplier<? extends T> load) {
+        try {
+            placeholder.complete(load.get());
+        } catch (RuntimeException | Error e) {
+            // Failed loads are removed from the cache, so the next caller retries
+            placeholder.completeExceptionally(e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Cache load failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.drainadoption.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.drainadoption.dto.DrainBatchResultDTO;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.User;
+import com.example.drainadoption.repository.DrainRepository;
+import com.example.drainadoption.repository.DrainRepository.DrainLocation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Deletes, releases or edits many drains with set-based statements, all in
+ * one transaction: a batch is applied in full or not at all. Ids go to the
+ * database in chunks of {@code drains.batch.chunk-size}, which bounds the
+ * size of each statement's IN list. Listeners and caches are notified once
+ * the transaction commits.
+ *
+ * Releases and deletes read the drains with their rows locked, so the
+ * adopters whose cache entries are evicted are exactly the ones the
+ * statement freed; an adoption racing the batch waits for it to commit.
+ */
+@Service
+public class DrainBatchService {
+
+    private final DrainRepository drainRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DrainChangePublisher drainChangePublisher;
+    private final UserCache userCache;
+    private final int chunkSize;
+
+    public DrainBatchService(DrainRepository drainRepository,
+                             TransactionTemplate transactionTemplate,
+                             DrainChangePublisher drainChangePublisher,
+                             UserCache userCache,
+                             @Value("${drains.batch.chunk-size:1000}") int chunkSize) {
+        this.drainRepository = drainRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.drainChangePublisher = drainChangePublisher;
+        this.userCache = userCache;
+        this.chunkSize = chunkSize;
+    }
+
+    // Also frees the adopters; comments and notifications go with the drains by ON DELETE CASCADE
+    public DrainBatchResultDTO delete(List<Long> drainIds) {
+        return inChunks(drainIds, chunk -> {
+            List<DrainLocation> found = drainRepository.lockLocationsByIdIn(chunk);
+            List<Long> ids = found.stream().map(DrainLocation::getId).toList();
+            if (ids.isEmpty()) {
+                return ChunkResult.unchanged(found);
+            }
+            int deleted = drainRepository.deleteAllByIdIn(ids);
+            return new ChunkResult(found, deleted, () -> {
+                ids.forEach(drainChangePublisher::drainRemoved);
+                invalidateAdopters(found);
+            });
+        });
+    }
+
+    public DrainBatchResultDTO resetAdoption(List<Long> drainIds) {
+        return inChunks(drainIds, chunk -> {
+            List<DrainLocation> found = drainRepository.lockLocationsByIdIn(chunk);
+            List<DrainLocation> adopted = found.stream()
+                    .filter(location -> location.getAdoptedByUserId() != null)
+                    .toList();
+            if (adopted.isEmpty()) {
+                return ChunkResult.unchanged(found);
+            }
+            int released = drainRepository.releaseAdoptions(adopted.stream().map(DrainLocation::getId).toList());
+            return new ChunkResult(found, released, () -> {
+                adopted.forEach(location -> drainChangePublisher.drainSaved(withoutAdopter(location)));
+                invalidateAdopters(adopted);
+            });
+        });
+    }
+
+    // Null name or image URL leaves that field unchanged
+    public DrainBatchResultDTO updateDetails(List<Long> drainIds, String name, String imageUrl) {
+        return inChunks(drainIds, chunk -> {
+            List<DrainLocation> found = drainRepository.findLocationsByIdIn(chunk);
+            if (found.isEmpty()) {
+                return ChunkResult.unchanged(found);
+            }
+            int updated = drainRepository.updateDetails(
+                    found.stream().map(DrainLocation::getId).toList(), name, imageUrl);
+            return new ChunkResult(found, updated, () ->
+                    found.forEach(location -> drainChangePublisher.drainSaved(snapshot(location))));
+        });
+    }
+
+    private DrainBatchResultDTO inChunks(List<Long> drainIds, Function<List<Long>, ChunkResult> statement) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(drainIds));
+        List<ChunkResult> results = transactionTemplate.execute(status -> {
+            List<ChunkResult> applied = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                applied.add(statement.apply(ids.subList(from, Math.min(from + chunkSize, ids.size()))));
+            }
+            return applied;
+        });
+
+        long matched = 0;
+        long affected = 0;
+        for (ChunkResult result : results) {
+            result.afterCommit().run();
+            matched += result.found().size();
+            affected += result.affected();
+        }
+        return new DrainBatchResultDTO(matched, affected, results.size());
+    }
+
+    private void invalidateAdopters(List<DrainLocation> locations) {
+        locations.forEach(location -> userCache.invalidate(location.getAdoptedByUserId()));
+    }
+
+    // The listeners read only the id, coordinates and adopter of a saved drain
+    private static Drain withoutAdopter(DrainLocation location) {
+        Drain drain = snapshot(location);
+        drain.setAdoptedByUser(null);
+        return drain;
+    }
+
+    private static Drain snapshot(DrainLocation location) {
+        Drain drain = new Drain();
+        drain.setId(location.getId());
+        drain.setLatitude(location.getLatitude());
+        drain.setLongitude(location.getLongitude());
+        if (location.getAdoptedByUserId() != null) {
+            User adopter = new User();
+            adopter.setId(location.getAdoptedByUserId());
+            drain.setAdoptedByUser(adopter);
+        }
+        return drain;
+    }
+
+    private record ChunkResult(List<DrainLocation> found, int affected, Runnable afterCommit) {
+
+        static ChunkResult unchanged(List<DrainLocation> found) {
+            return new ChunkResult(found, 0, () -> {
+            });
+        }
+    }
+}
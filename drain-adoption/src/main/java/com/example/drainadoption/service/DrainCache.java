@@ -0,0 +1,88 @@
+package com.example.drainadoption.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.dto.CacheStatsDTO;
+import com.example.drainadoption.dto.DrainDTO;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.repository.DrainRepository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Read-through cache of drain snapshots for lookups by id. Entries are dropped
+ * on every drain write via {@link DrainChangePublisher}; the TTL only bounds
+ * staleness from writes made outside this process.
+ *
+ * Cached DTOs are shared between requests and must not be modified.
+ */
+@Component
+public class DrainCache implements DrainChangeListener {
+
+    // Drains loaded per findAllById call, kept well under the JDBC bind parameter limit
+    private static final int ID_LOOKUP_CHUNK = 1000;
+
+    private final DrainRepository drainRepository;
+    private final AsyncCache<Long, DrainDTO> drains;
+
+    public DrainCache(DrainRepository drainRepository,
+                      @Value("${cache.drains.max-size:50000}") long maxSize,
+                      @Value("${cache.drains.ttl-seconds:600}") long ttlSeconds) {
+        this.drainRepository = drainRepository;
+        this.drains = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<DrainDTO> find(Long drainId) {
+        return Optional.ofNullable(CallerLoads.get(drains, drainId,
+                id -> drainRepository.findById(id).map(DrainDTO::fromEntity).orElse(null)));
+    }
+
+    // Missing drains are absent from the result; misses are loaded in bulk
+    public Map<Long, DrainDTO> findAll(List<Long> drainIds) {
+        return CallerLoads.<Long, DrainDTO>getAll(drains, drainIds, this::loadAll);
+    }
+
+    public boolean exists(Long drainId) {
+        return find(drainId).isPresent();
+    }
+
+    public void invalidate(Long drainId) {
+        drains.synchronous().invalidate(drainId);
+    }
+
+    @Override
+    public void drainSaved(Drain drain) {
+        drains.synchronous().invalidate(drain.getId());
+    }
+
+    @Override
+    public void drainRemoved(Long drainId) {
+        drains.synchronous().invalidate(drainId);
+    }
+
+    private Map<Long, DrainDTO> loadAll(Set<? extends Long> drainIds) {
+        List<Long> ids = List.copyOf(drainIds);
+        Map<Long, DrainDTO> loaded = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ID_LOOKUP_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_LOOKUP_CHUNK, ids.size()));
+            drainRepository.findAllById(chunk)
+                    .forEach(drain -> loaded.put(drain.getId(), DrainDTO.fromEntity(drain)));
+        }
+        return loaded;
+    }
+
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.fromCache(drains.synchronous());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.drainadoption.service;
+
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.model.Drain;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic change sequence of the drain catalogue, bumped by every drain write
+ * through {@link DrainChangePublisher}. Responses derived only from the catalogue
+ * can be tagged with it and revalidated without reading any drain.
+ *
+ * The sequence lives in memory, so tags carry the process start time to keep a
+ * restarted instance from reusing the tags of the previous one.
+ */
+@Component
+public class DrainCatalogVersion implements DrainChangeListener {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Unquoted; read it before loading data so a concurrent write can only make the tag stale
+    public String current() {
+        return epoch + "-" + sequence.get();
+    }
+
+    @Override
+    public void drainSaved(Drain drain) {
+        sequence.incrementAndGet();
+    }
+
+    @Override
+    public void drainRemoved(Long drainId) {
+        sequence.incrementAndGet();
+    }
+}
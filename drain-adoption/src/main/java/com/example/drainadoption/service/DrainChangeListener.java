@@ -0,0 +1,22 @@
+package com.example.drainadoption.service;
+
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.repository.DrainRepository.DrainLocation;
+
+import java.util.List;
+
+/**
+ * In-memory view of the drain catalogue that must follow every drain write.
+ * Implementations are notified through {@link DrainChangePublisher}.
+ */
+public interface DrainChangeListener {
+
+    // Called after a drain was created, moved, renamed, adopted or released
+    void drainSaved(Drain drain);
+
+    void drainRemoved(Long drainId);
+
+    // Called once the application is ready, with the location of every drain
+    default void rebuild(List<DrainLocation> locations) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.drainadoption.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.repository.DrainRepository;
+import com.example.drainadoption.repository.DrainRepository.DrainLocation;
+
+import java.util.List;
+
+/**
+ * Fans drain writes out to every {@link DrainChangeListener}, and loads them
+ * from a single scan of the drains table when the application starts.
+ */
+@Component
+public class DrainChangePublisher {
+
+    private final DrainRepository drainRepository;
+    private final List<DrainChangeListener> listeners;
+
+    public DrainChangePublisher(DrainRepository drainRepository, List<DrainChangeListener> listeners) {
+        this.drainRepository = drainRepository;
+        this.listeners = listeners;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        List<DrainLocation> locations = drainRepository.findAllLocations();
+        listeners.forEach(listener -> listener.rebuild(locations));
+    }
+
+    public void drainSaved(Drain drain) {
+        listeners.forEach(listener -> listener.drainSaved(drain));
+    }
+
+    public void drainRemoved(Long drainId) {
+        listeners.forEach(listener -> listener.drainRemoved(drainId));
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.drainadoption.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.dto.ClusterDTO;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.repository.DrainRepository.DrainLocation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Precomputed map clusters for every zoom level from 0 to the configured maximum.
+ *
+ * At zoom {@code z} a cluster cell is a Web Mercator tile of zoom {@code z + 2},
+ * i.e. a 4x4 split of each map tile. A drain's cell at the deepest level is
+ * computed once; its cells at coarser levels are found by shifting the tile
+ * coordinates, so a write touches exactly one cell per level.
+ */
+@Component
+public class DrainClusterPyramid implements DrainChangeListener {
+
+    private static final int CELL_SHIFT = 2;
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+
+    private final int maxZoom;
+    private final List<Map<Long, Cell>> levels = new ArrayList<>();
+    private final Map<Long, Point> pointsByDrainId = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public DrainClusterPyramid(@Value("${drains.clusters.max-zoom:16}") int maxZoom) {
+        this.maxZoom = Math.max(0, Math.min(maxZoom, 28));
+        for (int zoom = 0; zoom <= this.maxZoom; zoom++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    @Override
+    public void rebuild(List<DrainLocation> locations) {
+        lock.writeLock().lock();
+        try {
+            pointsByDrainId.clear();
+            levels.forEach(Map::clear);
+            for (DrainLocation location : locations) {
+                if (location.getLatitude() != null && location.getLongitude() != null) {
+                    add(location.getId(), location.getLatitude(), location.getLongitude(),
+                            location.getAdoptedByUserId() != null);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void drainSaved(Drain drain) {
+        lock.writeLock().lock();
+        try {
+            subtract(drain.getId());
+            if (drain.getLatitude() != null && drain.getLongitude() != null) {
+                add(drain.getId(), drain.getLatitude(), drain.getLongitude(), drain.getAdoptedByUser() != null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void drainRemoved(Long drainId) {
+        lock.writeLock().lock();
+        try {
+            subtract(drainId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the clusters of the given zoom level whose cell intersects the box.
+     * A null box returns every cluster of the level; zooms past the deepest level
+     * are served from the deepest level.
+     */
+    public List<ClusterDTO> findClusters(int zoom, double[] bbox) {
+        int level = Math.max(0, Math.min(zoom, maxZoom));
+        List<ClusterDTO> clusters = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Cell> cells = levels.get(level);
+            if (bbox == null) {
+                cells.values().forEach(cell -> clusters.add(cell.toDTO()));
+                return clusters;
+            }
+
+            int cellZoom = level + CELL_SHIFT;
+            int fromX = tileX(bbox[1], cellZoom);
+            int toX = tileX(bbox[3], cellZoom);
+            int fromY = tileY(bbox[2], cellZoom); // Tile rows grow southwards
+            int toY = tileY(bbox[0], cellZoom);
+
+            long rangeCells = (long) (toX - fromX + 1) * (toY - fromY + 1);
+            if (rangeCells <= cells.size()) {
+                for (int x = fromX; x <= toX; x++) {
+                    for (int y = fromY; y <= toY; y++) {
+                        Cell cell = cells.get(key(x, y));
+                        if (cell != null) {
+                            clusters.add(cell.toDTO());
+                        }
+                    }
+                }
+            } else {
+                for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                    int x = (int) (entry.getKey() >> 32);
+                    int y = (int) (long) entry.getKey();
+                    if (x >= fromX && x <= toX && y >= fromY && y <= toY) {
+                        clusters.add(entry.getValue().toDTO());
+                    }
+                }
+            }
+            return clusters;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(long drainId, double lat, double lon, boolean adopted) {
+        int cellZoom = maxZoom + CELL_SHIFT;
+        Point point = new Point(lat, lon, adopted, tileX(lon, cellZoom), tileY(lat, cellZoom));
+        pointsByDrainId.put(drainId, point);
+        for (int level = 0; level <= maxZoom; level++) {
+            int shift = maxZoom - level;
+            levels.get(level)
+                    .computeIfAbsent(key(point.x() >> shift, point.y() >> shift), k -> new Cell())
+                    .add(point, 1);
+        }
+    }
+
+    private void subtract(long drainId) {
+        Point point = pointsByDrainId.remove(drainId);
+        if (point == null) {
+            return;
+        }
+        for (int level = 0; level <= maxZoom; level++) {
+            int shift = maxZoom - level;
+            long cellKey = key(point.x() >> shift, point.y() >> shift);
+            Map<Long, Cell> cells = levels.get(level);
+            Cell cell = cells.get(cellKey);
+            if (cell != null) {
+                cell.add(point, -1);
+                if (cell.count == 0) {
+                    cells.remove(cellKey);
+                }
+            }
+        }
+    }
+
+    private static int tileX(double lon, int zoom) {
+        double clamped = Math.max(-180.0, Math.min(lon, 180.0));
+        int x = (int) Math.floor((clamped + 180.0) / 360.0 * (1 << zoom));
+        return Math.min(x, (1 << zoom) - 1);
+    }
+
+    private static int tileY(double lat, int zoom) {
+        double radians = Math.toRadians(Math.max(-MAX_MERCATOR_LAT, Math.min(lat, MAX_MERCATOR_LAT)));
+        double mercator = Math.log(Math.tan(radians) + 1 / Math.cos(radians));
+        int y = (int) Math.floor((1 - mercator / Math.PI) / 2 * (1 << zoom));
+        return Math.max(0, Math.min(y, (1 << zoom) - 1));
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private record Point(double lat, double lon, boolean adopted, int x, int y) {
+    }
+
+    // Running totals for one cluster cell; the centroid is sum / count
+    private static final class Cell {
+        private int count;
+        private int adoptedCount;
+        private double latitudeSum;
+        private double longitudeSum;
+
+        void add(Point point, int sign) {
+            count += sign;
+            if (point.adopted()) {
+                adoptedCount += sign;
+            }
+            latitudeSum += sign * point.lat();
+            longitudeSum += sign * point.lon();
+        }
+
+        ClusterDTO toDTO() {
+            return new ClusterDTO(latitudeSum / count, longitudeSum / count,
+                    count, adoptedCount, count - adoptedCount);
+        }
+    }
+}
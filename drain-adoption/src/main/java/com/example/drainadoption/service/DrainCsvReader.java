@@ -0,0 +1,143 @@
+package com.example.drainadoption.service;
+
+import com.example.drainadoption.exception.InvalidImportException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RFC 4180 CSV with a header row naming the columns, in any order:
+ * {@code latitude} (or {@code lat}), {@code longitude} ({@code lon},
+ * {@code lng}), and optionally {@code name} and {@code image_url}. Quoted
+ * fields may contain commas, doubled quotes and line breaks; blank lines are
+ * ignored and do not count as rows.
+ */
+class DrainCsvReader implements DrainImportReader {
+
+    // Guards against an unterminated quote swallowing the rest of the file
+    private static final int MAX_FIELD_LENGTH = 10_000;
+
+    private final Reader in;
+    private int nameColumn = -1;
+    private int imageUrlColumn = -1;
+    private int latitudeColumn = -1;
+    private int longitudeColumn = -1;
+    private boolean headerRead;
+    private long rowNumber;
+
+    DrainCsvReader(Reader in) {
+        this.in = in;
+    }
+
+    @Override
+    public DrainImportRow next() throws IOException {
+        if (!headerRead) {
+            readHeader();
+        }
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        rowNumber++;
+        String latitude = field(fields, latitudeColumn);
+        String longitude = field(fields, longitudeColumn);
+        try {
+            return new DrainImportRow(rowNumber, field(fields, nameColumn), field(fields, imageUrlColumn),
+                    latitude == null ? null : Double.valueOf(latitude),
+                    longitude == null ? null : Double.valueOf(longitude),
+                    null);
+        } catch (NumberFormatException e) {
+            return DrainImportRow.rejected(rowNumber, "coordinates are not numbers");
+        }
+    }
+
+    private void readHeader() throws IOException {
+        headerRead = true;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new InvalidImportException("CSV import is empty, expected a header row");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            switch (column) {
+                case "name" -> nameColumn = i;
+                case "imageurl", "image" -> imageUrlColumn = i;
+                case "latitude", "lat" -> latitudeColumn = i;
+                case "longitude", "lon", "lng", "long" -> longitudeColumn = i;
+                default -> {
+                    // Unknown columns are ignored
+                }
+            }
+        }
+        if (latitudeColumn < 0 || longitudeColumn < 0) {
+            throw new InvalidImportException("CSV header must name latitude and longitude columns");
+        }
+    }
+
+    // Trimmed value, null when the column is absent from the header, the record or blank
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Null at end of input
+    private List<String> readRecord() throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new InvalidImportException("Unterminated quoted field after row " + rowNumber);
+                }
+                if (c == '"') {
+                    c = in.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                append(field, c);
+            } else if (c == -1 || c == '\n') {
+                break;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+                c = in.read();
+                continue;
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            } else if (c != '\r') {
+                append(field, c);
+            }
+            fieldStart = false;
+            c = in.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new InvalidImportException("Field longer than " + MAX_FIELD_LENGTH + " characters after row "
+                    + rowNumber);
+        }
+        field.append((char) c);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.drainadoption.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.drainadoption.dto.DrainDTO;
+import com.example.drainadoption.repository.DrainRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full drain catalogue straight from a database cursor to an output
+ * stream, one row at a time, so memory use does not depend on catalogue size.
+ */
+@Service
+public class DrainExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        GEOJSON("application/geo+json");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    @Autowired
+    private DrainRepository drainRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+        try (Stream<DrainDTO> drains = drainRepository.streamAllForExport();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == Format.NDJSON) {
+                writeNdjson(drains.iterator(), generator);
+            } else {
+                writeGeoJson(drains.iterator(), generator);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<DrainDTO> drains, JsonGenerator generator) throws IOException {
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        boolean any = false;
+        while (drains.hasNext()) {
+            DrainDTO drain = drains.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", drain.getId());
+            generator.writeStringField("name", drain.getName());
+            generator.writeStringField("imageUrl", drain.getImageUrl());
+            writeNullableNumber(generator, "latitude", drain.getLatitude());
+            writeNullableNumber(generator, "longitude", drain.getLongitude());
+            writeNullableNumber(generator, "adoptedByUserId", drain.getAdoptedByUserId());
+            generator.writeEndObject();
+            any = true;
+        }
+        if (any) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    private void writeGeoJson(Iterator<DrainDTO> drains, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "FeatureCollection");
+        generator.writeArrayFieldStart("features");
+        while (drains.hasNext()) {
+            DrainDTO drain = drains.next();
+            generator.writeStartObject();
+            generator.writeStringField("type", "Feature");
+            generator.writeNumberField("id", drain.getId());
+            if (drain.getLatitude() != null && drain.getLongitude() != null) {
+                generator.writeObjectFieldStart("geometry");
+                generator.writeStringField("type", "Point");
+                generator.writeArrayFieldStart("coordinates");
+                generator.writeNumber(drain.getLongitude());
+                generator.writeNumber(drain.getLatitude());
+                generator.writeEndArray();
+                generator.writeEndObject();
+            } else {
+                generator.writeNullField("geometry");
+            }
+            generator.writeObjectFieldStart("properties");
+            generator.writeStringField("name", drain.getName());
+            generator.writeStringField("imageUrl", drain.getImageUrl());
+            writeNullableNumber(generator, "adoptedByUserId", drain.getAdoptedByUserId());
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeNullableNumber(JsonGenerator generator, String field, Number value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else if (value instanceof Long) {
+            generator.writeNumberField(field, value.longValue());
+        } else {
+            generator.writeNumberField(field, value.doubleValue());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.drainadoption.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.example.drainadoption.exception.InvalidImportException;
+
+import java.io.IOException;
+
+/**
+ * GeoJSON FeatureCollection of Point features, the shape written by the
+ * GeoJSON export. Features are read one at a time from the {@code features}
+ * array; {@code properties.name} and {@code properties.imageUrl} are optional.
+ */
+class DrainGeoJsonReader implements DrainImportReader {
+
+    private final JsonParser parser;
+    private boolean inFeatures;
+    private long rowNumber;
+
+    // The parser must have a codec, e.g. one created by an ObjectMapper
+    DrainGeoJsonReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    public DrainImportRow next() throws IOException {
+        try {
+            return readFeature();
+        } catch (JsonProcessingException e) {
+            throw new InvalidImportException("Malformed GeoJSON after row " + rowNumber + ": " + e.getOriginalMessage());
+        }
+    }
+
+    private DrainImportRow readFeature() throws IOException {
+        if (!inFeatures) {
+            seekFeatures();
+            inFeatures = true;
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new InvalidImportException("Expected a feature object after row " + rowNumber);
+        }
+        rowNumber++;
+        return toRow(parser.readValueAsTree());
+    }
+
+    private void seekFeatures() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new InvalidImportException("GeoJSON import must be a FeatureCollection object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("features".equals(field) && value == JsonToken.START_ARRAY) {
+                return;
+            }
+            parser.skipChildren();
+        }
+        throw new InvalidImportException("GeoJSON import has no features array");
+    }
+
+    private DrainImportRow toRow(JsonNode feature) {
+        JsonNode geometry = feature.path("geometry");
+        JsonNode coordinates = geometry.path("coordinates");
+        if (!"Point".equals(geometry.path("type").asText())
+                || !coordinates.path(0).isNumber() || !coordinates.path(1).isNumber()) {
+            return DrainImportRow.rejected(rowNumber, "geometry must be a Point with numeric coordinates");
+        }
+        JsonNode properties = feature.path("properties");
+        return new DrainImportRow(rowNumber, text(properties, "name"), text(properties, "imageUrl"),
+                coordinates.get(1).doubleValue(), coordinates.get(0).doubleValue(), null);
+    }
+
+    private static String text(JsonNode properties, String field) {
+        JsonNode value = properties.path(field);
+        return value.isValueNode() && !value.isNull() ? value.asText() : null;
+    }
+}
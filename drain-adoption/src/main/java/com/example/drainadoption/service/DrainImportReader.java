@@ -0,0 +1,14 @@
+package com.example.drainadoption.service;
+
+import java.io.IOException;
+
+/**
+ * Reads an import file incrementally, holding only the current row in memory.
+ * Structural errors that make the rest of the file unreadable are thrown as
+ * {@link com.example.drainadoption.exception.InvalidImportException}.
+ */
+interface DrainImportReader {
+
+    // Null at the end of the input
+    DrainImportRow next() throws IOException;
+}
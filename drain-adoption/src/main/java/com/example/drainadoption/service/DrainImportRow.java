@@ -0,0 +1,14 @@
+package com.example.drainadoption.service;
+
+/**
+ * One drain read from an import file. {@code number} counts data rows (CSV
+ * records after the header, GeoJSON features) from 1; {@code problem} is set
+ * when the row could not be parsed and must be rejected.
+ */
+record DrainImportRow(long number, String name, String imageUrl, Double latitude, Double longitude,
+                      String problem) {
+
+    static DrainImportRow rejected(long number, String problem) {
+        return new DrainImportRow(number, null, null, null, null, problem);
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.drainadoption.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.drainadoption.dto.DrainImportDTO;
+import com.example.drainadoption.exception.ImportInProgressException;
+import com.example.drainadoption.exception.ImportNotFoundException;
+import com.example.drainadoption.exception.InvalidImportException;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.DrainImport;
+import com.example.drainadoption.model.Geohash;
+import com.example.drainadoption.repository.DrainImportRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Imports drain inventories from CSV or GeoJSON as the upload streams in.
+ * Valid rows are inserted in JDBC batches of {@code drains.import.batch-size},
+ * each in its own transaction together with the import's checkpoint, and
+ * published to the {@link DrainChangeListener}s once committed. Ids come from
+ * the drain sequence in blocks of {@link Drain#ID_BLOCK_SIZE}, reserved with a
+ * single query per batch, so the rows go in with their ids already known.
+ *
+ * An import that fails part way, whether from bad input, a dropped upload or a
+ * database error, keeps its committed batches. Uploading the same file again
+ * under the same import id skips the rows already applied.
+ */
+@Slf4j
+@Service
+public class DrainImportService {
+
+    public enum Format {
+        CSV,
+        GEOJSON
+    }
+
+    private static final String INSERT_SQL =
+            "insert into drains (id, name, image_url, latitude, longitude, geohash, version) values (?, ?, ?, ?, ?, ?, 0)";
+
+    // Each value ends a block of Drain.ID_BLOCK_SIZE ids, as it does for Hibernate
+    private static final String RESERVE_SQL =
+            "select nextval('" + Drain.ID_SEQUENCE + "') from generate_series(1, ?)";
+
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_REJECTIONS_REPORTED = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DrainImportRepository drainImportRepository;
+    private final DrainChangePublisher drainChangePublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    // Imports running in this process; a second upload under the same id is refused
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public DrainImportService(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              DrainImportRepository drainImportRepository,
+                              DrainChangePublisher drainChangePublisher,
+                              ObjectMapper objectMapper,
+                              @Value("${drains.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.drainImportRepository = drainImportRepository;
+        this.drainChangePublisher = drainChangePublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public DrainImportDTO find(String importId) {
+        return drainImportRepository.findById(importId)
+                .map(DrainImportDTO::fromEntity)
+                .orElseThrow(() -> new ImportNotFoundException(importId));
+    }
+
+    /**
+     * Runs an import to completion on the calling thread, reading {@code in}
+     * incrementally. Without an id a new import is started; with the id of a
+     * failed import it resumes, and with the id of a completed one it returns
+     * that import unchanged.
+     */
+    public DrainImportDTO importDrains(String importId, Format format, InputStream in) throws IOException {
+        String id = importId != null ? importId : UUID.randomUUID().toString();
+        if (!IMPORT_ID.matcher(id).matches()) {
+            throw new InvalidImportException("Import id must be 1 to 64 letters, digits, '.', '_' or '-'");
+        }
+        if (!running.add(id)) {
+            throw new ImportInProgressException(id);
+        }
+        try {
+            DrainImport checkpoint = start(id, format);
+            if (checkpoint.getStatus() == DrainImport.Status.COMPLETED) {
+                return DrainImportDTO.fromEntity(checkpoint);
+            }
+            return run(checkpoint, reader(format, in));
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    private DrainImportReader reader(Format format, InputStream in) throws IOException {
+        if (format == Format.CSV) {
+            return new DrainCsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+        return new DrainGeoJsonReader(objectMapper.createParser(in));
+    }
+
+    private DrainImport start(String id, Format format) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            DrainImport checkpoint = drainImportRepository.findById(id).orElse(null);
+            if (checkpoint == null) {
+                checkpoint = new DrainImport();
+                checkpoint.setId(id);
+                checkpoint.setFormat(format.name());
+                checkpoint.setStartedAt(now);
+            } else if (checkpoint.getStatus() == DrainImport.Status.COMPLETED) {
+                return checkpoint;
+            } else if (!checkpoint.getFormat().equals(format.name())) {
+                throw new InvalidImportException(String.format(
+                        "Import %s was started as %s", id, checkpoint.getFormat()));
+            }
+            checkpoint.setStatus(DrainImport.Status.RUNNING);
+            checkpoint.setLastError(null);
+            checkpoint.setUpdatedAt(now);
+            return drainImportRepository.save(checkpoint);
+        });
+    }
+
+    private DrainImportDTO run(DrainImport checkpoint, DrainImportReader reader) throws IOException {
+        long alreadyProcessed = checkpoint.getRowsProcessed();
+        List<DrainImportRow> batch = new ArrayList<>(batchSize);
+        List<String> rejections = new ArrayList<>();
+        long lastRow = alreadyProcessed;
+        long rejectedSinceCommit = 0;
+        try {
+            DrainImportRow row;
+            while ((row = reader.next()) != null) {
+                if (row.number() <= alreadyProcessed) {
+                    continue;
+                }
+                lastRow = row.number();
+                String problem = validate(row);
+                if (problem != null) {
+                    rejectedSinceCommit++;
+                    if (rejections.size() < MAX_REJECTIONS_REPORTED) {
+                        rejections.add("row " + row.number() + ": " + problem);
+                    }
+                } else {
+                    batch.add(row);
+                }
+                // Rejected rows count too, so a file of bad rows still advances the checkpoint
+                if (lastRow - checkpoint.getRowsProcessed() >= batchSize) {
+                    checkpoint = commit(checkpoint, batch, lastRow, rejectedSinceCommit, DrainImport.Status.RUNNING);
+                    batch.clear();
+                    rejectedSinceCommit = 0;
+                }
+            }
+            checkpoint = commit(checkpoint, batch, lastRow, rejectedSinceCommit, DrainImport.Status.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            fail(checkpoint.getId(), e);
+            throw e;
+        }
+
+        DrainImportDTO dto = DrainImportDTO.fromEntity(checkpoint);
+        dto.setRejections(rejections);
+        return dto;
+    }
+
+    // Null when the row can be inserted
+    private static String validate(DrainImportRow row) {
+        if (row.problem() != null) {
+            return row.problem();
+        }
+        if (row.latitude() == null || row.longitude() == null) {
+            return "latitude and longitude are required";
+        }
+        if (!(row.latitude() >= -90 && row.latitude() <= 90)) {
+            return "latitude must be between -90 and 90";
+        }
+        if (!(row.longitude() >= -180 && row.longitude() <= 180)) {
+            return "longitude must be between -180 and 180";
+        }
+        if (row.name() != null && row.name().length() > MAX_TEXT_LENGTH) {
+            return "name is longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (row.imageUrl() != null && row.imageUrl().length() > MAX_TEXT_LENGTH) {
+            return "image URL is longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private DrainImport commit(DrainImport checkpoint, List<DrainImportRow> batch, long rowsProcessed,
+                               long rejected, DrainImport.Status status) {
+        List<Drain> created = new ArrayList<>(batch.size());
+        DrainImport saved = transactionTemplate.execute(tx -> {
+            created.addAll(insert(batch));
+            DrainImport next = drainImportRepository.findById(checkpoint.getId()).orElseThrow();
+            next.setRowsProcessed(rowsProcessed);
+            next.setInserted(next.getInserted() + created.size());
+            next.setRejected(next.getRejected() + rejected);
+            next.setStatus(status);
+            next.setUpdatedAt(LocalDateTime.now());
+            return drainImportRepository.save(next);
+        });
+        created.forEach(drainChangePublisher::drainSaved);
+        return saved;
+    }
+
+    private List<Drain> insert(List<DrainImportRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        long[] ids = reserveIds(rows.size());
+        return jdbcTemplate.execute((ConnectionCallback<List<Drain>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL)) {
+                List<Drain> drains = new ArrayList<>(rows.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    DrainImportRow row = rows.get(i);
+                    ps.setLong(1, ids[i]);
+                    setNullableString(ps, 2, row.name());
+                    setNullableString(ps, 3, row.imageUrl());
+                    ps.setDouble(4, row.latitude());
+                    ps.setDouble(5, row.longitude());
+                    // Set here because plain JDBC skips the entity's callbacks
+                    ps.setLong(6, Geohash.encode(row.latitude(), row.longitude()));
+                    ps.addBatch();
+                    drains.add(toDrain(ids[i], row));
+                }
+                ps.executeBatch();
+                return drains;
+            }
+        });
+    }
+
+    private long[] reserveIds(int count) {
+        long[] ids = new long[count];
+        int reserved = 0;
+        while (reserved < count) {
+            int blocks = (count - reserved + Drain.ID_BLOCK_SIZE - 1) / Drain.ID_BLOCK_SIZE;
+            for (long last : jdbcTemplate.queryForList(RESERVE_SQL, Long.class, blocks)) {
+                // A fresh sequence starts at 1, whose block is mostly below the first id
+                for (long id = Math.max(1, last - Drain.ID_BLOCK_SIZE + 1); id <= last && reserved < count; id++) {
+                    ids[reserved++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void fail(String importId, Exception cause) {
+        log.warn("Drain import {} failed: {}", importId, cause.toString());
+        try {
+            transactionTemplate.executeWithoutResult(tx -> drainImportRepository.findById(importId)
+                    .ifPresent(checkpoint -> {
+                        checkpoint.setStatus(DrainImport.Status.FAILED);
+                        checkpoint.setLastError(truncate(String.valueOf(cause.getMessage()), 1000));
+                        checkpoint.setUpdatedAt(LocalDateTime.now());
+                        drainImportRepository.save(checkpoint);
+                    }));
+        } catch (RuntimeException e) {
+            log.warn("Could not record failure of drain import {}", importId, e);
+        }
+    }
+
+    private static Drain toDrain(long id, DrainImportRow row) {
+        Drain drain = new Drain();
+        drain.setId(id);
+        drain.setName(row.name());
+        drain.setImageUrl(row.imageUrl());
+        drain.setLatitude(row.latitude());
+        drain.setLongitude(row.longitude());
+        drain.setVersion(0L);
+        return drain;
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
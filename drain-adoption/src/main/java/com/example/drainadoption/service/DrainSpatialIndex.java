@@ -0,0 +1,352 @@
+package com.example.drainadoption.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.Geohash;
+import com.example.drainadoption.repository.DrainRepository.DrainLocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory uniform grid over drain coordinates, used to answer bounding-box
+ * and nearest-neighbour queries without scanning the drains table.
+ *
+ * Coordinates live in primitive columns addressed by slot; each grid cell keeps
+ * the slots of the drains that fall inside it. The index is loaded and kept
+ * current through {@link DrainChangePublisher}.
+ */
+@Component
+public class DrainSpatialIndex implements DrainChangeListener {
+
+    // Along a meridian, on the same sphere Geohash.distanceKm measures on
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * Geohash.EARTH_RADIUS_KM;
+
+    private final double cellSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Column store, one entry per slot
+    private long[] ids = new long[1024];
+    private double[] latitudes = new double[1024];
+    private double[] longitudes = new double[1024];
+    private boolean[] adopted = new boolean[1024];
+    private int slotCount;
+
+    // Slots released by removals, reused before growing the columns
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+
+    private final Map<Long, Integer> slotByDrainId = new HashMap<>();
+    private final Map<Long, Cell> cells = new HashMap<>();
+
+    // Extent of the occupied grid, only ever widened
+    private int minRow = Integer.MAX_VALUE;
+    private int maxRow = Integer.MIN_VALUE;
+    private int minCol = Integer.MAX_VALUE;
+    private int maxCol = Integer.MIN_VALUE;
+
+    public DrainSpatialIndex(@Value("${drains.index.cell-size-degrees:0.01}") double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    @Override
+    public void rebuild(List<DrainLocation> locations) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (DrainLocation location : locations) {
+                if (location.getLatitude() != null && location.getLongitude() != null) {
+                    insert(location.getId(), location.getLatitude(), location.getLongitude(),
+                            location.getAdoptedByUserId() != null);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or refreshes a drain. Drains without coordinates are dropped from the index.
+     */
+    @Override
+    public void drainSaved(Drain drain) {
+        lock.writeLock().lock();
+        try {
+            delete(drain.getId());
+            if (drain.getLatitude() != null && drain.getLongitude() != null) {
+                insert(drain.getId(), drain.getLatitude(), drain.getLongitude(),
+                        drain.getAdoptedByUser() != null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void drainRemoved(Long drainId) {
+        lock.writeLock().lock();
+        try {
+            delete(drainId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByDrainId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all drains inside the box, edges inclusive, in no particular order.
+     */
+    public List<Long> findWithin(double minLat, double minLon, double maxLat, double maxLon) {
+        List<Long> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int fromRow = Math.max(row(minLat), minRow);
+            int toRow = Math.min(row(maxLat), maxRow);
+            int fromCol = Math.max(col(minLon), minCol);
+            int toCol = Math.min(col(maxLon), maxCol);
+            if (fromRow > toRow || fromCol > toCol) {
+                return result;
+            }
+
+            long rangeCells = (long) (toRow - fromRow + 1) * (toCol - fromCol + 1);
+            if (rangeCells <= cells.size()) {
+                for (int r = fromRow; r <= toRow; r++) {
+                    for (int c = fromCol; c <= toCol; c++) {
+                        collectWithin(cells.get(key(r, c)), minLat, minLon, maxLat, maxLon, result);
+                    }
+                }
+            } else {
+                // Sparse data under a huge box: walking the occupied cells is cheaper
+                for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                    int r = (int) (entry.getKey() >> 32);
+                    int c = (int) (long) entry.getKey();
+                    if (r >= fromRow && r <= toRow && c >= fromCol && c <= toCol) {
+                        collectWithin(entry.getValue(), minLat, minLon, maxLat, maxLon, result);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the {@code k} drains closest to the point, nearest first.
+     * Searches outward ring by ring and stops once no unvisited cell can hold a closer drain.
+     */
+    public List<Long> findNearest(double lat, double lon, int k, boolean unadoptedOnly) {
+        lock.readLock().lock();
+        try {
+            if (k <= 0 || slotByDrainId.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            // Max-heap on distance holding the best k candidates seen so far
+            PriorityQueue<Candidate> best = new PriorityQueue<>(
+                    Comparator.comparingDouble(Candidate::distanceKm).reversed());
+            int centerRow = row(lat);
+            int centerCol = col(lon);
+            // Rings closer than the occupied extent are empty, so start at its edge
+            int startRing = Math.max(
+                    Math.max(minRow - centerRow, centerRow - maxRow),
+                    Math.max(minCol - centerCol, centerCol - maxCol));
+            int maxRing = Math.max(
+                    Math.max(Math.abs(centerRow - minRow), Math.abs(maxRow - centerRow)),
+                    Math.max(Math.abs(centerCol - minCol), Math.abs(maxCol - centerCol)));
+
+            for (int ring = Math.max(startRing, 0); ring <= maxRing; ring++) {
+                int fromRow = Math.max(centerRow - ring, minRow);
+                int toRow = Math.min(centerRow + ring, maxRow);
+                for (int r = fromRow; r <= toRow; r++) {
+                    if (r == centerRow - ring || r == centerRow + ring) {
+                        int fromCol = Math.max(centerCol - ring, minCol);
+                        int toCol = Math.min(centerCol + ring, maxCol);
+                        for (int c = fromCol; c <= toCol; c++) {
+                            offerCandidates(cells.get(key(r, c)), lat, lon, k, unadoptedOnly, best);
+                        }
+                    } else {
+                        offerCandidates(cells.get(key(r, centerCol - ring)), lat, lon, k, unadoptedOnly, best);
+                        offerCandidates(cells.get(key(r, centerCol + ring)), lat, lon, k, unadoptedOnly, best);
+                    }
+                }
+                if (best.size() == k && best.peek().distanceKm() <= ringClearanceKm(lat, ring)) {
+                    break;
+                }
+            }
+
+            Long[] ordered = new Long[best.size()];
+            for (int i = ordered.length - 1; i >= 0; i--) {
+                ordered[i] = ids[best.poll().slot()];
+            }
+            return new ArrayList<>(Arrays.asList(ordered));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collectWithin(Cell cell, double minLat, double minLon, double maxLat, double maxLon,
+                               List<Long> result) {
+        if (cell == null) {
+            return;
+        }
+        for (int i = 0; i < cell.size; i++) {
+            int slot = cell.slots[i];
+            double slotLat = latitudes[slot];
+            double slotLon = longitudes[slot];
+            if (slotLat >= minLat && slotLat <= maxLat && slotLon >= minLon && slotLon <= maxLon) {
+                result.add(ids[slot]);
+            }
+        }
+    }
+
+    private void offerCandidates(Cell cell, double lat, double lon, int k, boolean unadoptedOnly,
+                                 PriorityQueue<Candidate> best) {
+        if (cell == null) {
+            return;
+        }
+        for (int i = 0; i < cell.size; i++) {
+            int slot = cell.slots[i];
+            if (unadoptedOnly && adopted[slot]) {
+                continue;
+            }
+            double distance = Geohash.distanceKm(lat, lon, latitudes[slot], longitudes[slot]);
+            if (best.size() < k) {
+                best.add(new Candidate(slot, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Candidate(slot, distance));
+            }
+        }
+    }
+
+    /**
+     * Lower bound on the distance from the query point to any drain outside the
+     * square of cells searched so far. A drain beyond the square's rows is at
+     * least its latitude reach away; one within them is at least the distance
+     * to the meridian at its longitude reach, which shrinks towards the poles,
+     * so the bound uses the highest latitude the square reaches. The reach
+     * leaves out the outermost ring, so rounding never ends the search early.
+     */
+    private double ringClearanceKm(double lat, int ring) {
+        double reach = Math.max(0, ring - 1) * cellSize;
+        if (reach >= 90.0) {
+            return 0;
+        }
+        double widestLat = Math.min(90.0, Math.abs(lat) + (ring + 1) * cellSize);
+        double meridianKm = Math.asin(Math.sin(Math.toRadians(reach)) * Math.cos(Math.toRadians(widestLat)))
+                * Geohash.EARTH_RADIUS_KM;
+        return Math.min(reach * KM_PER_DEGREE, meridianKm);
+    }
+
+    private void insert(long drainId, double lat, double lon, boolean isAdopted) {
+        int slot = allocateSlot();
+        ids[slot] = drainId;
+        latitudes[slot] = lat;
+        longitudes[slot] = lon;
+        adopted[slot] = isAdopted;
+        slotByDrainId.put(drainId, slot);
+
+        int r = row(lat);
+        int c = col(lon);
+        cells.computeIfAbsent(key(r, c), k -> new Cell()).add(slot);
+        minRow = Math.min(minRow, r);
+        maxRow = Math.max(maxRow, r);
+        minCol = Math.min(minCol, c);
+        maxCol = Math.max(maxCol, c);
+    }
+
+    private void delete(Long drainId) {
+        Integer slot = slotByDrainId.remove(drainId);
+        if (slot == null) {
+            return;
+        }
+        long cellKey = key(row(latitudes[slot]), col(longitudes[slot]));
+        Cell cell = cells.get(cellKey);
+        if (cell != null && cell.remove(slot) && cell.size == 0) {
+            cells.remove(cellKey);
+        }
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = slotCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            adopted = Arrays.copyOf(adopted, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void clear() {
+        slotByDrainId.clear();
+        cells.clear();
+        slotCount = 0;
+        freeCount = 0;
+        minRow = Integer.MAX_VALUE;
+        maxRow = Integer.MIN_VALUE;
+        minCol = Integer.MAX_VALUE;
+        maxCol = Integer.MIN_VALUE;
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellSize);
+    }
+
+    private int col(double lon) {
+        return (int) Math.floor(lon / cellSize);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private record Candidate(int slot, double distanceKm) {
+    }
+
+    // Growable list of slots; order is not preserved on removal
+    private static final class Cell {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.drainadoption.service;
+
+import com.example.drainadoption.model.Notification;
+
+import java.util.List;
+
+/**
+ * Follows notification writes. Implementations are notified through
+ * {@link NotificationChangePublisher}, after the write has committed.
+ */
+public interface NotificationChangeListener {
+
+    // Called with freshly inserted notifications, ids assigned, in id order
+    void notificationsCreated(List<Notification> notifications);
+
+    // Called with the number of notifications that went from unread to read
+    void notificationsRead(long count);
+}
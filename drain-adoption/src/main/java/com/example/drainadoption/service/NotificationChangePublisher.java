@@ -0,0 +1,31 @@
+package com.example.drainadoption.service;
+
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.model.Notification;
+
+import java.util.List;
+
+/**
+ * Fans committed notification writes out to every {@link NotificationChangeListener}.
+ */
+@Component
+public class NotificationChangePublisher {
+
+    private final List<NotificationChangeListener> listeners;
+
+    public NotificationChangePublisher(List<NotificationChangeListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    public void notificationsCreated(List<Notification> notifications) {
+        if (!notifications.isEmpty()) {
+            listeners.forEach(listener -> listener.notificationsCreated(notifications));
+        }
+    }
+
+    public void notificationsRead(long count) {
+        if (count > 0) {
+            listeners.forEach(listener -> listener.notificationsRead(count));
+        }
+    }
+}
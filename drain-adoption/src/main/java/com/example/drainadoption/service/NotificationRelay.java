@@ -0,0 +1,277 @@
+package com.example.drainadoption.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.drainadoption.dto.NotificationWriteStatsDTO;
+import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.model.Notification.NotificationType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves notifications from the outbox into the notifications table. One worker
+ * thread claims the oldest outbox rows in batches, inserts them as a single
+ * JDBC batch and deletes them in the same transaction, then hands the batch to
+ * {@link NotificationChangePublisher}. A failed batch stays in the outbox and
+ * is retried, so nothing is dropped.
+ *
+ * Rows are claimed with {@code for update skip locked} on PostgreSQL, so
+ * several instances can relay the same outbox without waiting on each other.
+ * {@link NotificationWriter} wakes the worker after each commit; it also polls,
+ * for rows left behind by another instance or a crash.
+ */
+@Slf4j
+@Component
+public class NotificationRelay implements SmartLifecycle {
+
+    private static final String CLAIM_SQL =
+            "select id, type, message, drain_id, user_id, created_at from notification_outbox " +
+            "order by id limit ? ";
+
+    private static final String INSERT_SQL =
+            "insert into notifications (id, type, message, drain_id, user_id, read, created_at) " +
+            "values (?, ?, ?, ?, ?, false, ?)";
+
+    private static final String DELETE_SQL = "delete from notification_outbox where id = ?";
+
+    private static final String DEPTH_SQL = "select count(*) from notification_outbox";
+
+    // How long the idle worker waits before looking at the outbox anyway
+    private static final long POLL_MILLIS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationChangePublisher notificationChangePublisher;
+    private final int batchSize;
+    private final int maxDepth;
+    private final boolean autoStartup;
+    private final Timer flushTimer;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+    // Serialises this instance's batches; other instances skip the locked rows
+    private final Object relaying = new Object();
+    private final AtomicLong depth = new AtomicLong();
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    private volatile String claimSql;
+    private volatile boolean running;
+    private Thread worker;
+
+    public NotificationRelay(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             NotificationChangePublisher notificationChangePublisher,
+                             MeterRegistry meterRegistry,
+                             @Value("${notifications.outbox.batch-size:500}") int batchSize,
+                             @Value("${notifications.outbox.max-depth:10000}") int maxDepth,
+                             @Value("${notifications.outbox.relay.auto-startup:true}") boolean autoStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationChangePublisher = notificationChangePublisher;
+        this.batchSize = batchSize;
+        this.maxDepth = maxDepth;
+        this.autoStartup = autoStartup;
+        this.flushTimer = Timer.builder("notifications.outbox.flush")
+                .description("Relaying one batch of outbox rows into the notifications table")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the outbox holds as many rows as it may. Writers then insert into
+     * the notifications table themselves, so a relay that cannot keep up slows
+     * them down rather than letting the outbox grow without bound.
+     */
+    boolean isFull() {
+        return depth.get() >= maxDepth;
+    }
+
+    // Called after a transaction that wrote to the outbox commits
+    void queued() {
+        depth.incrementAndGet();
+        if (wakeUp.availablePermits() == 0) {
+            wakeUp.release();
+        }
+    }
+
+    /**
+     * Relays every row in the outbox, batch by batch, on the calling thread,
+     * then recounts what is left.
+     *
+     * @return the number of notifications relayed
+     */
+    public int relayPending() {
+        int total = relayAll();
+        refreshDepth();
+        return total;
+    }
+
+    void addStats(NotificationWriteStatsDTO dto) {
+        long batchCount = batches.sum();
+        dto.setDepth(depth.get());
+        dto.setMaxDepth(maxDepth);
+        dto.setRelayed(relayed.sum());
+        dto.setBatches(batchCount);
+        dto.setFailedBatches(failedBatches.sum());
+        dto.setAverageFlushMillis(batchCount == 0 ? 0 : flushNanos.sum() / (double) batchCount / 1_000_000.0);
+        dto.setMaxFlushMillis(maxFlushNanos.get() / 1_000_000.0);
+    }
+
+    @Override
+    public void start() {
+        refreshDepth();
+        running = true;
+        worker = new Thread(this::run, "notification-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wakeUp.release();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the last requests wrote; anything left is relayed on the next start
+        try {
+            relayPending();
+        } catch (RuntimeException e) {
+            log.warn("Leaving {} notifications in the outbox at shutdown", depth.get(), e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return autoStartup;
+    }
+
+    // Below the web server's phase: started before it and stopped after its last request
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        while (running) {
+            boolean woken;
+            try {
+                woken = wakeUp.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            wakeUp.drainPermits();
+            try {
+                relayAll();
+                if (!woken) {
+                    // Rows cascaded away with their drain, or relayed by another instance
+                    refreshDepth();
+                }
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                log.warn("Relaying notifications failed; retrying in {} ms", POLL_MILLIS, e);
+            }
+        }
+    }
+
+    private int relayAll() {
+        int total = 0;
+        int count;
+        do {
+            count = relayBatch();
+            total += count;
+        } while (count == batchSize);
+        return total;
+    }
+
+    private int relayBatch() {
+        synchronized (relaying) {
+            long start = System.nanoTime();
+            List<Notification> batch = transactionTemplate.execute(status -> {
+                List<Notification> claimed = jdbcTemplate.query(claimSql(), this::mapRow, batchSize);
+                if (!claimed.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, claimed, claimed.size(), (ps, notification) -> {
+                        ps.setLong(1, notification.getId());
+                        ps.setString(2, notification.getType().name());
+                        ps.setString(3, notification.getMessage());
+                        ps.setLong(4, notification.getDrainId());
+                        if (notification.getUserId() == null) {
+                            ps.setNull(5, Types.BIGINT);
+                        } else {
+                            ps.setLong(5, notification.getUserId());
+                        }
+                        ps.setTimestamp(6, Timestamp.valueOf(notification.getCreatedAt()));
+                    });
+                    jdbcTemplate.batchUpdate(DELETE_SQL, claimed, claimed.size(),
+                            (ps, notification) -> ps.setLong(1, notification.getId()));
+                }
+                return claimed;
+            });
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            flushTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            flushNanos.add(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+            batches.increment();
+            relayed.add(batch.size());
+            depth.accumulateAndGet(batch.size(), (current, count) -> Math.max(0, current - count));
+            notificationChangePublisher.notificationsCreated(batch);
+            return batch.size();
+        }
+    }
+
+    private void refreshDepth() {
+        Long count = jdbcTemplate.queryForObject(DEPTH_SQL, Long.class);
+        depth.set(count == null ? 0 : count);
+    }
+
+    // H2, which the tests run on, has no skip locked; a single instance does not need it
+    private String claimSql() {
+        if (claimSql == null) {
+            boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con ->
+                    "PostgreSQL".equals(con.getMetaData().getDatabaseProductName())));
+            claimSql = CLAIM_SQL + (postgres ? "for update skip locked" : "for update");
+        }
+        return claimSql;
+    }
+
+    private Notification mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Notification notification = new Notification();
+        notification.setId(rs.getLong("id"));
+        notification.setType(NotificationType.valueOf(rs.getString("type")));
+        notification.setMessage(rs.getString("message"));
+        notification.setDrainId(rs.getLong("drain_id"));
+        long userId = rs.getLong("user_id");
+        notification.setUserId(rs.wasNull() ? null : userId);
+        notification.setRead(false);
+        notification.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return notification;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.drainadoption.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.example.drainadoption.model.Notification;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pushes notification events to connected admins over Server-Sent Events.
+ *
+ * Every subscriber, the replay buffer and all sends are owned by one
+ * dispatcher thread, so publishing never blocks the notification writer and
+ * no locking is needed. Idle streams are async requests and hold no servlet
+ * thread; the connection ceiling is the container's, see
+ * {@code server.tomcat.max-connections}.
+ *
+ * Events:
+ * <ul>
+ *   <li>{@code notification}: a new notification, with its id as the SSE event id.
+ *       A resumed stream may repeat notifications the client already has, so
+ *       clients drop ids they have seen.</li>
+ *   <li>{@code unread-count}: the absolute unread count, sent once on connect</li>
+ *   <li>{@code unread-delta}: a change to the unread count</li>
+ *   <li>{@code resync}: the replay buffer no longer covers Last-Event-ID; reload the list</li>
+ * </ul>
+ *
+ * Ids are drawn when a notification is written, not when it commits, so a
+ * lower id can be published after a higher one. Replay therefore goes by
+ * creation time: everything buffered since shortly before the last event the
+ * client saw, in (created_at, id) order.
+ */
+@Component
+public class NotificationStreamHub implements NotificationChangeListener, DisposableBean {
+
+    private static final Comparator<Notification> REPLAY_ORDER =
+            Comparator.comparing(Notification::getCreatedAt).thenComparing(Notification::getId);
+
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final long timeoutMillis;
+    private final int replaySize;
+    private final Duration replayOverlap;
+    private final ScheduledExecutorService dispatcher;
+
+    // Dispatcher thread only
+    private final Set<SseEmitter> subscribers = new LinkedHashSet<>();
+    private final ArrayDeque<Notification> recent = new ArrayDeque<>();
+    private LocalDateTime evictedThrough = LocalDateTime.MIN; // Latest creation time dropped from the buffer
+
+    public NotificationStreamHub(UnreadNotificationCounter unreadNotificationCounter,
+                                 @Value("${notifications.stream.timeout-minutes:30}") long timeoutMinutes,
+                                 @Value("${notifications.stream.heartbeat-seconds:20}") long heartbeatSeconds,
+                                 @Value("${notifications.stream.replay-size:1000}") int replaySize,
+                                 @Value("${notifications.stream.replay-overlap-seconds:5}") long replayOverlapSeconds) {
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.timeoutMillis = Duration.ofMinutes(timeoutMinutes).toMillis();
+        this.replaySize = replaySize;
+        this.replayOverlap = Duration.ofSeconds(replayOverlapSeconds);
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a stream. With {@code lastEventId}, notifications created since
+     * shortly before it are replayed first when still buffered, otherwise the
+     * stream starts with {@code resync}.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> {
+            if (!dispatcher.isShutdown()) {
+                dispatcher.execute(() -> subscribers.remove(emitter));
+            }
+        });
+        emitter.onTimeout(emitter::complete);
+
+        dispatcher.execute(() -> {
+            // Registered before the count is read, so no delta after the snapshot passes it by
+            subscribers.add(emitter);
+            long unread = unreadNotificationCounter.current();
+            if (!send(emitter, () -> SseEmitter.event().name("unread-count").data(Map.of("count", unread)))
+                    || (lastEventId != null && !replay(emitter, lastEventId))) {
+                subscribers.remove(emitter);
+            }
+        });
+        return emitter;
+    }
+
+    @Override
+    public void notificationsCreated(List<Notification> notifications) {
+        dispatcher.execute(() -> {
+            for (Notification notification : notifications) {
+                recent.addLast(notification);
+                if (recent.size() > replaySize) {
+                    LocalDateTime evicted = recent.removeFirst().getCreatedAt();
+                    if (evicted.isAfter(evictedThrough)) {
+                        evictedThrough = evicted;
+                    }
+                }
+                broadcast(() -> notificationEvent(notification));
+            }
+            broadcast(() -> SseEmitter.event().name("unread-delta").data(Map.of("delta", notifications.size())));
+        });
+    }
+
+    @Override
+    public void notificationsRead(long count) {
+        dispatcher.execute(() ->
+                broadcast(() -> SseEmitter.event().name("unread-delta").data(Map.of("delta", -count))));
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdown();
+        try {
+            dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    // Returns false when the subscriber is gone
+    private boolean replay(SseEmitter emitter, long lastEventId) {
+        LocalDateTime since = recent.stream()
+                .filter(notification -> notification.getId() == lastEventId)
+                .map(notification -> notification.getCreatedAt().minus(replayOverlap))
+                .findFirst()
+                .orElse(null);
+        // Unknown event, or part of the window already dropped from the buffer
+        if (since == null || !evictedThrough.isBefore(since)) {
+            return send(emitter, () -> SseEmitter.event().name("resync").data(Map.of()));
+        }
+        List<Notification> missed = recent.stream()
+                .filter(notification -> notification.getId() != lastEventId)
+                .filter(notification -> !notification.getCreatedAt().isBefore(since))
+                .sorted(REPLAY_ORDER)
+                .toList();
+        for (Notification notification : missed) {
+            if (!send(emitter, () -> notificationEvent(notification))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sendHeartbeat() {
+        broadcast(() -> SseEmitter.event().comment("heartbeat"));
+    }
+
+    // Builders are single use, so each subscriber gets a fresh one
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        List<SseEmitter> gone = new ArrayList<>();
+        for (SseEmitter emitter : subscribers) {
+            if (!send(emitter, event)) {
+                gone.add(emitter);
+            }
+        }
+        gone.forEach(subscribers::remove);
+    }
+
+    // Returns false when the subscriber is gone; the container then completes the emitter
+    private static boolean send(SseEmitter emitter, Supplier<SseEmitter.SseEventBuilder> event) {
+        try {
+            emitter.send(event.get());
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder notificationEvent(Notification notification) {
+        return SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name("notification")
+                .data(notification, MediaType.APPLICATION_JSON);
+    }
+}
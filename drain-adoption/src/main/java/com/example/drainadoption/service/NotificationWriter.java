@@ -0,0 +1,179 @@
+package com.example.drainadoption.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.example.drainadoption.dto.NotificationWriteStatsDTO;
+import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.model.Notification.NotificationType;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes admin notifications in the transaction of the change they report, so
+ * a committed adoption or comment always has its notification and a rolled
+ * back one never does. The request only adds a row to the outbox, a table
+ * with no index beyond its key; {@link NotificationRelay} moves committed rows
+ * into the indexed notifications table in batches and hands them to
+ * {@link NotificationChangePublisher}.
+ *
+ * When the outbox is full the request inserts into the notifications table
+ * itself and publishes after its commit, so a relay that falls behind slows
+ * writers down instead of letting the outbox grow. A crash between a commit and
+ * its hand-off only loses the live push: the row is in the feed, and the
+ * unread count is reconciled against the table.
+ */
+@Component
+public class NotificationWriter {
+
+    private static final String OUTBOX_SQL =
+            "insert into notification_outbox (id, type, message, drain_id, user_id, created_at) " +
+            "values (nextval('" + Notification.ID_SEQUENCE + "'), ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SQL =
+            "insert into notifications (id, type, message, drain_id, user_id, read, created_at) " +
+            "values (nextval('" + Notification.ID_SEQUENCE + "'), ?, ?, ?, ?, false, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationRelay notificationRelay;
+    private final NotificationChangePublisher notificationChangePublisher;
+    private final Timer outboxTimer;
+    private final Timer directTimer;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder writtenDirectly = new LongAdder();
+    private final LongAdder rolledBack = new LongAdder();
+    private final LongAdder insertNanos = new LongAdder();
+    private final AtomicLong maxInsertNanos = new AtomicLong();
+
+    public NotificationWriter(JdbcTemplate jdbcTemplate,
+                              NotificationRelay notificationRelay,
+                              NotificationChangePublisher notificationChangePublisher,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationRelay = notificationRelay;
+        this.notificationChangePublisher = notificationChangePublisher;
+        this.outboxTimer = writeTimer(meterRegistry, "outbox");
+        this.directTimer = writeTimer(meterRegistry, "direct");
+    }
+
+    /**
+     * Adds a notification to the caller's transaction. Listeners hear of it
+     * once it has been relayed after that transaction commits, and never if it
+     * rolls back.
+     *
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void write(NotificationType type, String message, Long drainId, Long userId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Notifications are written in the transaction of the change they report");
+        }
+        if (notificationRelay.isFull()) {
+            writeDirectly(type, message, drainId, userId);
+            return;
+        }
+
+        insert(OUTBOX_SQL, outboxTimer, null, type, message, drainId, userId, LocalDateTime.now());
+        TransactionSynchronizationManager.registerSynchronization(new Completion() {
+            @Override
+            public void afterCommit() {
+                queued.increment();
+                notificationRelay.queued();
+            }
+        });
+    }
+
+    public NotificationWriteStatsDTO stats() {
+        NotificationWriteStatsDTO dto = new NotificationWriteStatsDTO();
+        long count = queued.sum() + writtenDirectly.sum() + rolledBack.sum();
+        dto.setQueued(queued.sum());
+        dto.setWrittenDirectly(writtenDirectly.sum());
+        dto.setRolledBack(rolledBack.sum());
+        dto.setAverageInsertMillis(count == 0 ? 0 : insertNanos.sum() / (double) count / 1_000_000.0);
+        dto.setMaxInsertMillis(maxInsertNanos.get() / 1_000_000.0);
+        notificationRelay.addStats(dto);
+        return dto;
+    }
+
+    // Backpressure: the request pays for the indexed insert and the hand-off
+    private void writeDirectly(NotificationType type, String message, Long drainId, Long userId) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        KeyHolder keys = new GeneratedKeyHolder();
+        insert(INSERT_SQL, directTimer, keys, type, message, drainId, userId, createdAt);
+
+        Notification created = new Notification();
+        created.setId(keys.getKey().longValue());
+        created.setType(type);
+        created.setMessage(message);
+        created.setDrainId(drainId);
+        created.setUserId(userId);
+        created.setRead(false);
+        created.setCreatedAt(createdAt);
+
+        TransactionSynchronizationManager.registerSynchronization(new Completion() {
+            @Override
+            public void afterCommit() {
+                writtenDirectly.increment();
+                notificationChangePublisher.notificationsCreated(List.of(created));
+            }
+        });
+    }
+
+    private void insert(String sql, Timer timer, KeyHolder keys, NotificationType type, String message,
+                        Long drainId, Long userId, LocalDateTime createdAt) {
+        long start = System.nanoTime();
+        PreparedStatementCreator creator = con -> {
+            PreparedStatement ps = keys == null
+                    ? con.prepareStatement(sql)
+                    : con.prepareStatement(sql, new String[] {"id"});
+            ps.setString(1, type.name());
+            ps.setString(2, message);
+            ps.setLong(3, drainId);
+            if (userId == null) {
+                ps.setNull(4, Types.BIGINT);
+            } else {
+                ps.setLong(4, userId);
+            }
+            ps.setTimestamp(5, Timestamp.valueOf(createdAt));
+            return ps;
+        };
+        if (keys == null) {
+            jdbcTemplate.update(creator);
+        } else {
+            jdbcTemplate.update(creator, keys);
+        }
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        insertNanos.add(elapsed);
+        maxInsertNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private static Timer writeTimer(MeterRegistry meterRegistry, String path) {
+        return Timer.builder("notifications.write")
+                .description("The notification insert a request makes in its own transaction")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    private abstract class Completion implements TransactionSynchronization {
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+                rolledBack.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.drainadoption.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.repository.NotificationRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Process-wide count of unread notifications, kept current from committed
+ * notification writes so the badge endpoint never queries the database.
+ *
+ * Writes that bypass {@link NotificationChangePublisher}, such as deleting a
+ * drain's notifications, let the count drift; a periodic reconciliation
+ * against the database corrects it.
+ */
+@Slf4j
+@Component
+public class UnreadNotificationCounter implements NotificationChangeListener {
+
+    private final NotificationRepository notificationRepository;
+    private final LongAdder unread = new LongAdder();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private volatile boolean reconciled;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository) {
+        this.notificationRepository = notificationRepository;
+    }
+
+    public long current() {
+        if (!reconciled) {
+            reconcile();
+        }
+        return Math.max(0, unread.sum());
+    }
+
+    @Override
+    public void notificationsCreated(List<Notification> notifications) {
+        adjust(notifications.size());
+    }
+
+    @Override
+    public void notificationsRead(long count) {
+        adjust(-count);
+    }
+
+    /**
+     * Corrects the count to the database's. The correction is the database
+     * count minus the counter as sampled before the query, added rather than
+     * set, so adjustments made while the query runs are kept. A write whose
+     * commit lands between the sample and the query's snapshot is counted
+     * twice until the next run.
+     */
+    @Scheduled(fixedDelayString = "${notifications.unread.reconcile-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void reconcile() {
+        // One reconciliation at a time, or two would apply the same correction
+        reconcileLock.lock();
+        try {
+            long counted = unread.sum();
+            long actual = notificationRepository.countByReadFalse();
+            long drift = actual - counted;
+            if (drift != 0) {
+                unread.add(drift);
+                if (reconciled) {
+                    log.debug("Unread notification count drifted by {}", drift);
+                }
+            }
+            reconciled = true;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void adjust(long delta) {
+        unread.add(delta);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.drainadoption.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.dto.CacheStatsDTO;
+import com.example.drainadoption.dto.UserDTO;
+import com.example.drainadoption.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache of user snapshots for lookups by id. Every write that
+ * changes a user's role or adopted drain must call {@link #invalidate(Long)}.
+ *
+ * Cached DTOs are shared between requests and must not be modified.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final AsyncCache<Long, UserDTO> users;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${cache.users.max-size:50000}") long maxSize,
+                     @Value("${cache.users.ttl-seconds:600}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<UserDTO> find(Long userId) {
+        return Optional.ofNullable(CallerLoads.get(users, userId,
+                id -> userRepository.findById(id).map(UserDTO::fromEntity).orElse(null)));
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            users.synchronous().invalidate(userId);
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.fromCache(users.synchronous());
+    }
+}
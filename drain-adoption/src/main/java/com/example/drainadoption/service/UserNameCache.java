@@ -0,0 +1,45 @@
+package com.example.drainadoption.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.drainadoption.dto.CacheStatsDTO;
+import com.example.drainadoption.repository.UserRepository;
+
+import java.util.Optional;
+
+/**
+ * Bounded cache of user display names for rendering comments and notifications,
+ * so those paths never load a full {@code User} (and its adopted drain) just to
+ * print a name. Only existing users are cached.
+ */
+@Component
+public class UserNameCache {
+
+    private final UserRepository userRepository;
+    private final AsyncCache<Long, String> names;
+
+    public UserNameCache(UserRepository userRepository,
+                         @Value("${cache.user-names.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.names = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+    }
+
+    // Empty when no user has this id
+    public Optional<String> findName(Long userId) {
+        return Optional.ofNullable(
+                CallerLoads.get(names, userId, id -> userRepository.findNameById(id).orElse(null)));
+    }
+
+    public void invalidate(Long userId) {
+        names.synchronous().invalidate(userId);
+    }
+
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.fromCache(names.synchronous());
+    }
+}
@@ -0,0 +1,61 @@
+-- The tables as Hibernate generated them from the entities before migrations
+-- were introduced. Existing databases are baselined at this version instead of
+-- running it; see FlywayConfig. Keys that older databases may be missing are
+-- added in V2, so that both paths end with the same schema.
+
+create table users (
+    id bigserial not null,
+    email varchar(255) not null,
+    name varchar(255),
+    password varchar(255) not null,
+    role varchar(255) not null check (role in ('ADMIN', 'ADOPTER')),
+    constraint users_pkey primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table drains (
+    id bigserial not null,
+    name varchar(255),
+    image_url varchar(255),
+    latitude float(53),
+    longitude float(53),
+    adopted_by_user_id bigint,
+    version bigint default 0 not null,
+    constraint drains_pkey primary key (id),
+    constraint fk_drains_adopted_by_user foreign key (adopted_by_user_id) references users
+);
+
+create table comments (
+    id bigserial not null,
+    drain_id bigint not null,
+    user_id bigint not null,
+    text varchar(1000) not null,
+    image_url varchar(255),
+    created_at timestamp(6) not null,
+    constraint comments_pkey primary key (id),
+    constraint fk_comments_user foreign key (user_id) references users
+);
+
+create table notifications (
+    id bigserial not null,
+    type varchar(255) not null check (type in ('DRAIN_ADOPTED', 'COMMENT_ADDED')),
+    message varchar(255) not null,
+    drain_id bigint not null,
+    user_id bigint,
+    read boolean not null,
+    created_at timestamp(6) not null,
+    constraint notifications_pkey primary key (id)
+);
+
+create table drain_imports (
+    id varchar(64) not null,
+    format varchar(16) not null,
+    status varchar(16) not null check (status in ('RUNNING', 'FAILED', 'COMPLETED')),
+    rows_processed bigint not null,
+    inserted bigint not null,
+    rejected bigint not null,
+    last_error varchar(1000),
+    started_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    constraint drain_imports_pkey primary key (id)
+);
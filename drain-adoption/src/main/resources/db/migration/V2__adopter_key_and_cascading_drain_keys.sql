@@ -0,0 +1,54 @@
+-- One drain per adopter. The key includes the drain id, so looking up a
+-- user's drain, as the user list does, is answered from the index alone.
+-- Replaces any uniqueness Hibernate created on the column under its own name.
+do $$
+declare
+    existing record;
+begin
+    for existing in
+        select con.conname
+        from pg_constraint con
+        join pg_attribute att on att.attrelid = con.conrelid and att.attnum = con.conkey[1]
+        where con.conrelid = 'drains'::regclass
+          and con.contype = 'u'
+          and cardinality(con.conkey) = 1
+          and att.attname = 'adopted_by_user_id'
+          and con.conname <> 'uk_drains_adopted_by_user'
+    loop
+        execute format('alter table drains drop constraint %I', existing.conname);
+    end loop;
+
+    if not exists (select 1 from pg_constraint
+                   where conrelid = 'drains'::regclass and conname = 'uk_drains_adopted_by_user') then
+        alter table drains add constraint uk_drains_adopted_by_user unique (adopted_by_user_id) include (id);
+    end if;
+end $$;
+
+-- Deleting a drain deletes its comments and notifications in the same
+-- statement. Whatever foreign keys Hibernate left on drain_id, with or
+-- without the cascade, are replaced by the two named ones below.
+do $$
+declare
+    existing record;
+begin
+    for existing in
+        select con.conname, con.conrelid::regclass as table_name
+        from pg_constraint con
+        join pg_attribute att on att.attrelid = con.conrelid and att.attnum = con.conkey[1]
+        where con.contype = 'f'
+          and con.confrelid = 'drains'::regclass
+          and con.conrelid in ('comments'::regclass, 'notifications'::regclass)
+          and att.attname = 'drain_id'
+    loop
+        execute format('alter table %s drop constraint %I', existing.table_name, existing.conname);
+    end loop;
+end $$;
+
+-- Notifications of drains deleted while the table had no foreign key
+delete from notifications n where not exists (select 1 from drains d where d.id = n.drain_id);
+
+alter table comments add constraint fk_comments_drain
+    foreign key (drain_id) references drains on delete cascade;
+
+alter table notifications add constraint fk_notifications_drain
+    foreign key (drain_id) references drains on delete cascade;
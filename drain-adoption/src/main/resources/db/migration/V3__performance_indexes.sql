@@ -0,0 +1,24 @@
+-- Built concurrently so that large existing tables keep taking writes, which
+-- is why this script runs outside a transaction. If a build is interrupted,
+-- drop the invalid index it leaves behind and run the migration again.
+
+-- A drain's comments, newest first, and the keyset pages that follow
+create index concurrently if not exists idx_comments_drain_created
+    on comments (drain_id, created_at desc, id desc);
+
+-- Comment authors; keeps the foreign key check cheap when a user is deleted
+create index concurrently if not exists idx_comments_user
+    on comments (user_id);
+
+-- Notifications of a drain, removed by the cascade when the drain is deleted
+create index concurrently if not exists idx_notifications_drain
+    on notifications (drain_id);
+
+-- The notification feed, newest first
+create index concurrently if not exists idx_notifications_created
+    on notifications (created_at desc, id desc);
+
+-- Unread notifications only, so the unread count and mark-read statements
+-- stay cheap however many read notifications pile up
+create index concurrently if not exists idx_notifications_unread
+    on notifications (created_at desc, id desc) where not read;
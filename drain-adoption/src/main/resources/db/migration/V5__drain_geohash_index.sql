@@ -0,0 +1,5 @@
+-- Proximity queries scan a few ranges of this index, one per geohash prefix
+-- they cover, then compare the coordinates of the rows found. Built
+-- concurrently like the V3 indexes.
+create index concurrently if not exists idx_drains_geohash
+    on drains (geohash);
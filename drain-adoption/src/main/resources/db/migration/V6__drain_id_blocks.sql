@@ -0,0 +1,6 @@
+-- Drain ids are handed out in blocks of 50: one nextval reserves the 50 ids
+-- ending at the value it returns. Hibernate inserts and bulk imports then
+-- need one sequence call per block instead of one per row, and Hibernate can
+-- batch the inserts. The column default still works for plain inserts, which
+-- each use up a block.
+alter sequence drains_id_seq increment by 50;
@@ -0,0 +1,15 @@
+-- Notifications waiting to be relayed into the notifications table. A request
+-- writes one row here in its own transaction; the relay moves them across in
+-- batches. The table has no index beyond its key, so the write on the request
+-- path stays cheap, and it is normally close to empty, so the cascade from a
+-- deleted drain can scan it.
+create table notification_outbox (
+    id bigint not null default nextval('notifications_id_seq'),
+    type varchar(255) not null check (type in ('DRAIN_ADOPTED', 'COMMENT_ADDED')),
+    message varchar(255) not null,
+    drain_id bigint not null,
+    user_id bigint,
+    created_at timestamp(6) not null,
+    constraint notification_outbox_pkey primary key (id),
+    constraint fk_notification_outbox_drain foreign key (drain_id) references drains on delete cascade
+);
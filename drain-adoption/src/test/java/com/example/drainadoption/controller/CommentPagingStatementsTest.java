@@ -0,0 +1,156 @@
+package com.example.drainadoption.controller;
+
+import com.example.drainadoption.metrics.StatementCounter;
+import com.example.drainadoption.model.Comment;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.User;
+import com.example.drainadoption.repository.CommentRepository;
+import com.example.drainadoption.repository.DrainRepository;
+import com.example.drainadoption.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comment reads cost the same number of statements however many comments a
+ * drain has, and however deep into its pages the client is.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CommentPagingStatementsTest {
+
+    private static final int AUTHORS = 40;
+    private static final int COMMENTS = 600;
+    private static final int PAGE_SIZE = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private DrainRepository drainRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Long busyDrainId;
+    private Long quietDrainId;
+
+    @BeforeAll
+    void seed() {
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            User author = new User();
+            author.setName("Author " + i);
+            author.setEmail("comment-author-" + i + "@example.com");
+            author.setPassword("unused");
+            author.setRole(User.UserRole.ADOPTER);
+            authors.add(author);
+        }
+        authors = userRepository.saveAll(authors);
+
+        busyDrainId = drainRepository.save(drain("Busy drain")).getId();
+        quietDrainId = drainRepository.save(drain("Quiet drain")).getId();
+
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(comment(busyDrainId, authors.get(i % AUTHORS), "Comment " + i));
+        }
+        for (int i = 0; i < 3; i++) {
+            comments.add(comment(quietDrainId, authors.get(i), "Quiet comment " + i));
+        }
+        commentRepository.saveAll(comments);
+    }
+
+    @Test
+    void everyPageCostsTheSameAsTheFirst() throws Exception {
+        // Warms the drain existence cache, so only the comment queries are compared
+        fetch("/api/drains/" + busyDrainId + "/comments?limit=1");
+
+        Set<Long> seen = new HashSet<>();
+        List<Integer> statementsPerPage = new ArrayList<>();
+        String cursor = null;
+        do {
+            String uri = "/api/drains/" + busyDrainId + "/comments?limit=" + PAGE_SIZE
+                    + (cursor != null ? "&cursor=" + cursor : "");
+            try (StatementCounter.Scope scope = statementCounter.open()) {
+                JsonNode page = fetch(uri);
+                page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+                cursor = page.get("next").isNull() ? null : page.get("next").asText();
+                statementsPerPage.add(scope.count());
+            }
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(COMMENTS);
+        assertThat(statementsPerPage).hasSize(COMMENTS / PAGE_SIZE);
+        assertThat(statementsPerPage).containsOnly(1);
+    }
+
+    @Test
+    void fullListCostsTheSameWhateverTheVolume() throws Exception {
+        fetch("/api/drains/" + busyDrainId + "/comments");
+        fetch("/api/drains/" + quietDrainId + "/comments");
+
+        int busy;
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            assertThat(fetch("/api/drains/" + busyDrainId + "/comments")).hasSize(COMMENTS);
+            busy = scope.count();
+        }
+        int quiet;
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            assertThat(fetch("/api/drains/" + quietDrainId + "/comments")).hasSize(3);
+            quiet = scope.count();
+        }
+
+        assertThat(busy).isEqualTo(quiet).isEqualTo(1);
+    }
+
+    private JsonNode fetch(String uri) throws Exception {
+        String body = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static Drain drain(String name) {
+        Drain drain = new Drain();
+        drain.setName(name);
+        drain.setLatitude(47.6);
+        drain.setLongitude(-122.3);
+        return drain;
+    }
+
+    private static Comment comment(Long drainId, User author, String text) {
+        Comment comment = new Comment();
+        comment.setDrainId(drainId);
+        comment.setUserId(author.getId());
+        comment.setText(text);
+        return comment;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.drainadoption.controller;
+
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.model.Notification.NotificationType;
+import com.example.drainadoption.repository.DrainRepository;
+import com.example.drainadoption.repository.NotificationRepository;
+import com.example.drainadoption.security.JwtUtil;
+import com.example.drainadoption.service.NotificationRelay;
+import com.example.drainadoption.service.NotificationWriter;
+import com.example.drainadoption.service.UnreadNotificationCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NotificationMarkReadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private DrainRepository drainRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private NotificationRelay notificationRelay;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Test
+    void markingTheSameNotificationReadTwiceCountsOnce() throws Exception {
+        Drain drain = new Drain();
+        drain.setName("Read drain");
+        drain.setLatitude(47.6);
+        drain.setLongitude(-122.3);
+        Long drainId = drainRepository.save(drain).getId();
+        transactionTemplate.executeWithoutResult(status ->
+                notificationWriter.write(NotificationType.DRAIN_ADOPTED, "To be read", drainId, null));
+        notificationRelay.relayPending();
+        Notification notification = notificationRepository.findAllByOrderByCreatedAtDesc().get(0);
+        String token = jwtUtil.generateToken("admin@example.com", 1L, "ADMIN");
+
+        long unread = unreadNotificationCounter.current();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(put("/api/notifications/" + notification.getId() + "/read")
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.read").value(true));
+        }
+
+        assertThat(unreadNotificationCounter.current()).isEqualTo(unread - 1);
+        assertThat(notificationRepository.countByReadFalse()).isEqualTo(unreadNotificationCounter.current());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.drainadoption.controller;
+
+import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.model.Notification.NotificationType;
+import com.example.drainadoption.security.JwtUtil;
+import com.example.drainadoption.service.NotificationStreamHub;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * A resumed stream replays by creation time, so a notification published
+ * after the client's last event but carrying a lower id is not skipped.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NotificationStreamReplayTest {
+
+    // Well clear of the notifications other tests publish into the same buffer
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private NotificationStreamHub notificationStreamHub;
+
+    @Test
+    void replayCoversLateLowerIdsAndSkipsOlderOnes() throws Exception {
+        notificationStreamHub.notificationsCreated(List.of(
+                notification(900_100, BASE.minusSeconds(10)),
+                notification(900_101, BASE),
+                notification(900_103, BASE.plusSeconds(2))));
+        // Committed after 900_103, which the client has already seen
+        notificationStreamHub.notificationsCreated(List.of(notification(900_102, BASE.plusSeconds(1))));
+
+        String events = stream("900103");
+
+        assertThat(events).contains("event:unread-count")
+                .doesNotContain("id:900100")
+                .doesNotContain("id:900103")
+                .doesNotContain("event:resync");
+        assertThat(events.indexOf("id:900101")).isPositive().isLessThan(events.indexOf("id:900102"));
+    }
+
+    @Test
+    void unknownLastEventAsksForResync() throws Exception {
+        assertThat(stream("123456789")).contains("event:resync");
+    }
+
+    // Events sent once the dispatcher has registered the stream and replayed to it
+    private String stream(String lastEventId) throws Exception {
+        String token = jwtUtil.generateToken("admin@example.com", 1L, "ADMIN");
+        MvcResult result = mockMvc.perform(get("/api/notifications/stream")
+                        .header("Authorization", "Bearer " + token)
+                        .header("Last-Event-ID", lastEventId))
+                .andReturn();
+        long deadline = System.currentTimeMillis() + 5_000;
+        String events = result.getResponse().getContentAsString();
+        while (!events.contains("event:unread-count") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            events = result.getResponse().getContentAsString();
+        }
+        // The replay follows the count in the same dispatcher task
+        Thread.sleep(100);
+        return result.getResponse().getContentAsString();
+    }
+
+    private static Notification notification(long id, LocalDateTime createdAt) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setType(NotificationType.DRAIN_ADOPTED);
+        notification.setMessage("Replayed " + id);
+        notification.setDrainId(1L);
+        notification.setRead(false);
+        notification.setCreatedAt(createdAt);
+        return notification;
+    }
+}
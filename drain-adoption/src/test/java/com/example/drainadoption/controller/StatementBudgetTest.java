@@ -0,0 +1,311 @@
+package com.example.drainadoption.controller;
+
+import com.example.drainadoption.metrics.StatementBudget;
+import com.example.drainadoption.metrics.StatementCounter;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.model.Notification.NotificationType;
+import com.example.drainadoption.model.User;
+import com.example.drainadoption.repository.CommentRepository;
+import com.example.drainadoption.repository.DrainRepository;
+import com.example.drainadoption.repository.NotificationRepository;
+import com.example.drainadoption.repository.UserRepository;
+import com.example.drainadoption.security.JwtUtil;
+import com.example.drainadoption.service.NotificationRelay;
+import com.example.drainadoption.service.NotificationWriter;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Calls every controller handler with {@code db.statements.budget.mode=fail},
+ * so a handler that goes over its {@link StatementBudget}, or repeats a
+ * statement it is not allowed to, fails here. Each call also pins the number
+ * of statements the handler issues today: a change that adds a query has to
+ * update this test, and a budget raised past that number stands out.
+ *
+ * The database is this class's own, so the caches start cold and no admin
+ * exists until {@link #adminHandlers()} creates the first one.
+ */
+@SpringBootTest(properties = {
+        "db.statements.budget.mode=fail",
+        "spring.datasource.url=jdbc:h2:mem:statement-budgets;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class StatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private DrainRepository drainRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private NotificationRelay notificationRelay;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Set<Method> called = ConcurrentHashMap.newKeySet();
+
+    @Test
+    void authHandlers() throws Exception {
+        String credentials = "{\"name\":\"Budget\",\"email\":\"budget@example.com\",\"password\":\"secret\"}";
+
+        // Email lookup, insert
+        call(2, post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials));
+        // The user with the drain on the inverse side of the one-to-one; the hash is current
+        call(1, post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials));
+
+        // A hash stored at another strength is replaced in place, without re-reading the adopter
+        User stored = adopter("rehashed");
+        stored.setPassword(new BCryptPasswordEncoder(5).encode("secret"));
+        userRepository.save(stored);
+        Drain adopted = drain("Rehashed");
+        adopted.setAdoptedByUser(stored);
+        drainRepository.save(adopted);
+        String storedCredentials = "{\"email\":\"rehashed@example.com\",\"password\":\"secret\"}";
+        call(2, post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(storedCredentials));
+        assertThat(userRepository.findById(stored.getId()))
+                .hasValueSatisfying(user -> assertThat(user.getPassword()).startsWith("$2a$04$"));
+        call(1, post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(storedCredentials));
+    }
+
+    @Test
+    void adminHandlers() throws Exception {
+        // Admin check, email lookup, insert
+        call(3, post("/api/admin/create-first-admin").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"First\",\"email\":\"first-admin@example.com\",\"password\":\"secret\"}"));
+        // Lookup, update
+        call(2, asAdmin(put("/api/admin/promote/" + adopter("promoted").getId())));
+
+        call(0, asAdmin(get("/api/admin/cache-stats")));
+        call(0, asAdmin(get("/api/admin/notification-writes")));
+        call(0, asAdmin(get("/api/admin/password-hashing")));
+        call(0, asAdmin(get("/api/admin/concurrency-limits")));
+    }
+
+    @Test
+    void userHandlers() throws Exception {
+        User user = adopter("listed");
+
+        call(1, asAdmin(get("/api/users")));
+        call(1, asAdmin(get("/api/users?limit=10")));
+        // One projection with the user's drain
+        call(1, asAdmin(get("/api/users/" + user.getId())));
+        // Hibernate refuses the missing email and password before issuing the insert
+        call(0, asAdmin(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Nameless\"}")), 500);
+        // Existence check, load, delete
+        call(3, asAdmin(delete("/api/users/" + user.getId())));
+    }
+
+    @Test
+    void drainReadHandlers() throws Exception {
+        Long id = drain("Read").getId();
+
+        call(1, get("/api/drains"));
+        call(1, get("/api/drains?limit=10"));
+        call(1, get("/api/drains?bbox=47,-123,48,-122"));
+        // Ids from the spatial index, rows from the drain cache the list above filled
+        call(0, get("/api/drains/nearest?lat=47.6&lon=-122.3"));
+        call(1, get("/api/drains/near?lat=47.6&lon=-122.3"));
+        call(0, get("/api/drains/clusters?zoom=3"));
+        call(1, get("/api/drains/export"));
+        call(1, get("/api/drains/" + id));
+    }
+
+    @Test
+    void drainWriteHandlers() throws Exception {
+        // Saved first, so the insert below takes its id from a block Hibernate already holds
+        Long updated = drain("Updated").getId();
+        Long deleted = drain("Deleted").getId();
+
+        call(1, asAdmin(post("/api/drains").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Created\",\"latitude\":47.6,\"longitude\":-122.3}")));
+        // Load, update
+        call(2, asAdmin(put("/api/drains/" + updated).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Renamed\"}")));
+        // Locations, delete
+        call(2, asAdmin(delete("/api/drains/" + deleted)));
+    }
+
+    @Test
+    void importHandlers() throws Exception {
+        // Checkpoint read and write at the start, then per batch a read and write of it
+        call(5, asAdmin(post("/api/drains/imports?format=CSV&importId=budget")
+                .contentType("text/csv")
+                .content("name,latitude,longitude\nImported,47.6,-122.3\n")));
+        call(1, asAdmin(get("/api/drains/imports/budget")));
+    }
+
+    @Test
+    void adoptionAndCommentHandlers() throws Exception {
+        Long drainId = drain("Adopted").getId();
+        User user = adopter("commenter");
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), "ADOPTER");
+
+        // User and drain lookups, claim, version read back; the notification goes through JDBC
+        call(4, post("/api/drains/" + drainId + "/adopt?userId=" + user.getId())
+                .header("Authorization", "Bearer " + token));
+        // Drain and author lookups, insert; the notification goes through JDBC
+        call(3, post("/api/drains/" + drainId + "/comments?userId=" + user.getId())
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\":\"Cleared the leaves\"}"));
+        call(1, get("/api/drains/" + drainId + "/comments"));
+        call(1, get("/api/drains/" + drainId + "/comments?limit=10"));
+
+        Long commentId = commentRepository.findDTOsByDrainId(drainId, Pageable.unpaged())
+                .get(0).getId();
+        // Load, then deleteById loads it again before the delete
+        call(3, asAdmin(delete("/api/drains/" + drainId + "/comments/" + commentId)));
+        // Locations, release
+        call(2, asAdmin(post("/api/drains/" + drainId + "/reset-adoption")));
+    }
+
+    @Test
+    void batchHandlers() throws Exception {
+        String ids = "{\"ids\":[" + drain("Batch 1").getId() + "," + drain("Batch 2").getId() + "]";
+
+        call(2, asAdmin(post("/api/drains/batch/update").contentType(MediaType.APPLICATION_JSON)
+                .content(ids + ",\"name\":\"Batched\"}")));
+        call(1, asAdmin(post("/api/drains/batch/reset-adoption").contentType(MediaType.APPLICATION_JSON)
+                .content(ids + "}")));
+        call(2, asAdmin(post("/api/drains/batch/delete").contentType(MediaType.APPLICATION_JSON)
+                .content(ids + "}")));
+    }
+
+    @Test
+    void notificationHandlers() throws Exception {
+        Long drainId = drain("Notified").getId();
+        transactionTemplate.executeWithoutResult(status ->
+                notificationWriter.write(NotificationType.DRAIN_ADOPTED, "Budgeted", drainId, null));
+        notificationRelay.relayPending();
+        Notification notification = notificationRepository.findAllByOrderByCreatedAtDesc().get(0);
+
+        call(1, asAdmin(get("/api/notifications")));
+        call(1, asAdmin(get("/api/notifications?limit=10")));
+        call(0, asAdmin(get("/api/notifications/unread-count")));
+        // Conditional update, read back
+        call(2, asAdmin(put("/api/notifications/" + notification.getId() + "/read")));
+        call(1, asAdmin(put("/api/notifications/mark-read").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + notification.getId() + "]}")));
+        call(1, asAdmin(put("/api/notifications/mark-all-read")));
+        call(0, asAdmin(get("/api/notifications/stream")));
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE)
+    void everyHandlerIsBudgetedAndCalled() {
+        List<HandlerMethod> handlers = handlerMapping.getHandlerMethods().values().stream()
+                .filter(handler -> handler.getBeanType().getPackageName().equals(getClass().getPackageName()))
+                .toList();
+
+        assertThat(handlers).isNotEmpty().allSatisfy(handler -> {
+            assertThat(handler.hasMethodAnnotation(StatementBudget.class))
+                    .as("%s has a @StatementBudget", handler).isTrue();
+            assertThat(called).as("%s is called by this test", handler).contains(handler.getMethod());
+        });
+    }
+
+    private void call(int statements, MockHttpServletRequestBuilder request) throws Exception {
+        call(statements, request, 0);
+    }
+
+    // A status of 0 accepts any success
+    private void call(int statements, MockHttpServletRequestBuilder request, int status) throws Exception {
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            MvcResult result = mockMvc.perform(request).andReturn();
+            HandlerMethod handler = (HandlerMethod) result.getHandler();
+            called.add(handler.getMethod());
+
+            int actual = result.getResponse().getStatus();
+            if (status == 0) {
+                assertThat(actual).as("status of %s", handler).isBetween(200, 299);
+            } else {
+                assertThat(actual).as("status of %s", handler).isEqualTo(status);
+            }
+            assertThat(scope.count()).as("statements issued by %s", handler).isEqualTo(statements);
+
+            StatementBudget budget = handler.getMethodAnnotation(StatementBudget.class);
+            if (budget.value() != StatementBudget.UNLIMITED) {
+                assertThat(statements).as("budget of %s", handler).isLessThanOrEqualTo(budget.value());
+            }
+        }
+    }
+
+    private MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization",
+                "Bearer " + jwtUtil.generateToken("budget-admin@example.com", 0L, "ADMIN"));
+    }
+
+    private Drain drain(String name) {
+        Drain drain = new Drain();
+        drain.setName(name);
+        drain.setLatitude(47.6);
+        drain.setLongitude(-122.3);
+        return drainRepository.save(drain);
+    }
+
+    private User adopter(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("unused");
+        user.setRole(User.UserRole.ADOPTER);
+        return userRepository.save(user);
+    }
+}
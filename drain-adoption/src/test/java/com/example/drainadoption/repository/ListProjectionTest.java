@@ -0,0 +1,117 @@
+package com.example.drainadoption.repository;
+
+import com.example.drainadoption.dto.DrainDTO;
+import com.example.drainadoption.dto.UserDTO;
+import com.example.drainadoption.metrics.StatementCounter;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The drain and user list projections take the adopter and adopted drain ids
+ * from their left join, for adopted and unadopted rows alike, in one statement
+ * however many rows are adopted.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ListProjectionTest {
+
+    private static final AtomicInteger RUNS = new AtomicInteger();
+
+    @Autowired
+    private DrainRepository drainRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private User adopter;
+    private User bystander;
+    private Drain adopted;
+    private Drain unadopted;
+
+    @BeforeEach
+    void setUp() {
+        int run = RUNS.incrementAndGet();
+        adopter = user("projected-adopter-" + run);
+        bystander = user("projected-bystander-" + run);
+        adopted = drain("Projected adopted", adopter);
+        unadopted = drain("Projected unadopted", null);
+    }
+
+    @Test
+    void drainListsCarryTheAdopterId() {
+        assertDrains(() -> drainRepository.findAllDTOs());
+        assertDrains(() -> drainRepository.findDTOsAfter(adopted.getId() - 1, PageRequest.of(0, 2)));
+    }
+
+    @Test
+    void userListsCarryTheAdoptedDrainId() {
+        assertUsers(() -> userRepository.findAllDTOs());
+        assertUsers(() -> userRepository.findDTOsAfter(adopter.getId() - 1, PageRequest.of(0, 2)));
+    }
+
+    private void assertDrains(Supplier<List<DrainDTO>> query) {
+        List<DrainDTO> drains = inOneStatement(query);
+
+        assertThat(drains).filteredOn(drain -> drain.getId().equals(adopted.getId()))
+                .singleElement().satisfies(drain -> {
+                    assertThat(drain.getName()).isEqualTo("Projected adopted");
+                    assertThat(drain.getAdoptedByUserId()).isEqualTo(adopter.getId());
+                });
+        assertThat(drains).filteredOn(drain -> drain.getId().equals(unadopted.getId()))
+                .singleElement().satisfies(drain -> assertThat(drain.getAdoptedByUserId()).isNull());
+    }
+
+    private void assertUsers(Supplier<List<UserDTO>> query) {
+        List<UserDTO> users = inOneStatement(query);
+
+        assertThat(users).filteredOn(user -> user.getId().equals(adopter.getId()))
+                .singleElement().satisfies(user -> {
+                    assertThat(user.getEmail()).isEqualTo(adopter.getEmail());
+                    assertThat(user.getRole()).isEqualTo("ADOPTER");
+                    assertThat(user.getAdoptedDrainId()).isEqualTo(adopted.getId());
+                });
+        assertThat(users).filteredOn(user -> user.getId().equals(bystander.getId()))
+                .singleElement().satisfies(user -> assertThat(user.getAdoptedDrainId()).isNull());
+    }
+
+    private <T> List<T> inOneStatement(Supplier<List<T>> query) {
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            List<T> rows = query.get();
+            assertThat(scope.count()).as("statements issued").isEqualTo(1);
+            return rows;
+        }
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("unused");
+        user.setRole(User.UserRole.ADOPTER);
+        return userRepository.save(user);
+    }
+
+    private Drain drain(String name, User adoptedBy) {
+        Drain drain = new Drain();
+        drain.setName(name);
+        drain.setLatitude(47.6);
+        drain.setLongitude(-122.3);
+        drain.setAdoptedByUser(adoptedBy);
+        return drainRepository.save(drain);
+    }
+}
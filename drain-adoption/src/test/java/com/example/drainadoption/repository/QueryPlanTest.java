@@ -0,0 +1,255 @@
+package com.example.drainadoption.repository;
+
+import com.example.drainadoption.metrics.StatementCounter;
+import com.example.drainadoption.model.Geohash;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The migrations, applied to a real PostgreSQL, give the hot queries the
+ * indexes they were written for. Each query's SQL is captured as Hibernate
+ * issues it, then explained as a generic plan, the one a prepared statement
+ * settles on whatever its parameters, over enough rows that a sequential scan
+ * would be the cheaper choice without the index.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@ActiveProfiles("test")
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int DRAINS = 50_000;
+    private static final int COMMENTS = 50_000;
+    private static final int NOTIFICATIONS = 50_000;
+    private static final int USERS = 2_000;
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\?");
+
+    private static EmbeddedPostgres postgres;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private DrainRepository drainRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private long busyDrainId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into users (email, name, password, role) " +
+                "select 'plan-' || g || '@example.com', 'Planner ' || g, 'unused', 'ADOPTER' " +
+                "from generate_series(1, ?) g", USERS);
+
+        // Around a city, so a small box holds a small share of the drains
+        Random random = new Random(42);
+        List<Object[]> drains = new ArrayList<>(DRAINS);
+        for (int i = 0; i < DRAINS; i++) {
+            double latitude = 47.4 + 0.4 * random.nextDouble();
+            double longitude = -122.5 + 0.4 * random.nextDouble();
+            drains.add(new Object[] {"Drain " + i, latitude, longitude, Geohash.encode(latitude, longitude)});
+        }
+        jdbcTemplate.batchUpdate("insert into drains (name, latitude, longitude, geohash, version) " +
+                "values (?, ?, ?, ?, 0)", drains);
+
+        // One adopter for each of the first drains
+        jdbcTemplate.update("update drains d set adopted_by_user_id = u.id from " +
+                "(select id, row_number() over (order by id) n from users) u, " +
+                "(select id, row_number() over (order by id) n from drains) o " +
+                "where o.id = d.id and o.n = u.n");
+
+        busyDrainId = jdbcTemplate.queryForObject("select min(id) from drains", Long.class);
+
+        // Spread over a thousand drains, so one drain's comments are a small share
+        jdbcTemplate.update("insert into comments (drain_id, user_id, text, created_at) " +
+                "select d.id, (select min(id) from users), 'Comment ' || g, " +
+                "localtimestamp - g * interval '1 minute' " +
+                "from generate_series(1, ?) g " +
+                "join (select id, row_number() over (order by id) - 1 n from drains limit 1000) d " +
+                "on d.n = g % 1000", COMMENTS);
+
+        // Nearly all of them read, as in a feed that admins keep up with
+        jdbcTemplate.update("insert into notifications (type, message, drain_id, read, created_at) " +
+                "select 'DRAIN_ADOPTED', 'Notification ' || g, d.id, g % 100 <> 0, " +
+                "localtimestamp - g * interval '1 second' " +
+                "from generate_series(1, ?) g " +
+                "join (select id, row_number() over (order by id) - 1 n from drains limit 1000) d " +
+                "on d.n = g % 1000", NOTIFICATIONS);
+
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void migrationsCreateTheIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select indexname from pg_indexes where schemaname = 'public'", String.class);
+
+        assertThat(indexes).contains("idx_comments_drain_created", "idx_comments_user",
+                "idx_notifications_drain", "idx_notifications_created", "idx_notifications_unread",
+                "idx_drains_geohash", "uk_drains_adopted_by_user");
+    }
+
+    @Test
+    void boxQueryScansGeohashRanges() {
+        String plan = plan(() -> drainRepository.findDTOsWithin(47.60, -122.35, 47.61, -122.33));
+
+        assertThat(plan).contains("idx_drains_geohash").doesNotContain("Seq Scan on drains");
+    }
+
+    @Test
+    void radiusQueryScansGeohashRanges() {
+        String plan = plan(() -> drainRepository.findDTOsWithinRadius(47.6, -122.3, 1));
+
+        assertThat(plan).contains("idx_drains_geohash").doesNotContain("Seq Scan on drains");
+    }
+
+    @Test
+    void unreadCountReadsOnlyThePartialIndex() {
+        String plan = plan(() -> notificationRepository.countByReadFalse());
+
+        assertThat(plan).contains("idx_notifications_unread").doesNotContain("Seq Scan on notifications");
+    }
+
+    @Test
+    void markingOldNotificationsReadFindsThemThroughThePartialIndex() {
+        String plan = plan(() -> transactionTemplate.executeWithoutResult(status -> {
+            notificationRepository.markReadOlderThan(LocalDateTime.now().minusHours(1));
+            status.setRollbackOnly();
+        }));
+
+        assertThat(plan).contains("idx_notifications_unread").doesNotContain("Seq Scan on notifications");
+    }
+
+    @Test
+    void firstCommentPageIsReadInIndexOrder() {
+        String plan = plan(() -> commentRepository.findDTOsByDrainId(busyDrainId, PageRequest.of(0, 26)));
+
+        assertThat(plan).contains("idx_comments_drain_created")
+                .doesNotContain("Seq Scan on comments")
+                .doesNotContain("Sort");
+    }
+
+    @Test
+    void laterCommentPagesAreReadInIndexOrder() {
+        String plan = plan(() -> commentRepository.findDTOPageAfter(
+                busyDrainId, LocalDateTime.now().minusDays(1), Long.MAX_VALUE, PageRequest.of(0, 26)));
+
+        // The scan starts at the position, rather than filtering the drain's earlier pages away
+        assertThat(plan).contains("idx_comments_drain_created")
+                .containsPattern("Index Cond: \\(\\(drain_id = \\$\\d+\\) AND \\(created_at <= \\$\\d+\\)\\)")
+                .doesNotContain("Seq Scan on comments")
+                .doesNotContain("Sort");
+    }
+
+    @Test
+    void batchReleasesLockTheDrainsThroughTheKey() {
+        String plan = plan(() -> transactionTemplate.executeWithoutResult(status ->
+                drainRepository.lockLocationsByIdIn(List.of(busyDrainId, busyDrainId + 1))));
+
+        assertThat(plan).contains("LockRows").contains("drains_pkey").doesNotContain("Seq Scan on drains");
+    }
+
+    @Test
+    void cascadingDeletesFindChildrenThroughTheirIndexes() {
+        // The statements PostgreSQL runs for ON DELETE CASCADE when a drain goes
+        assertThat(explain("delete from comments where drain_id = $1", 1))
+                .contains("idx_comments_drain_created").doesNotContain("Seq Scan");
+        assertThat(explain("delete from notifications where drain_id = $1", 1))
+                .contains("idx_notifications_drain").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void adoptersDrainIsFoundThroughTheAdopterKey() {
+        assertThat(explain("select id from drains where adopted_by_user_id = $1", 1))
+                .contains("uk_drains_adopted_by_user").doesNotContain("Seq Scan");
+    }
+
+    // Generic plan of the single statement Hibernate issues for the query
+    private String plan(Runnable query) {
+        String sql;
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            query.run();
+            assertThat(scope.count()).as("statements issued").isEqualTo(1);
+            sql = scope.mostRepeated().getKey();
+        }
+
+        Matcher placeholders = PLACEHOLDER.matcher(sql);
+        int[] parameters = {0};
+        String numbered = placeholders.replaceAll(match -> "\\$" + ++parameters[0]);
+        return explain(numbered, parameters[0]);
+    }
+
+    private String explain(String sql, int parameters) {
+        String nulls = String.join(", ", Collections.nCopies(parameters, "null"));
+        return jdbcTemplate.execute((ConnectionCallback<String>) con -> {
+            try (Statement statement = con.createStatement()) {
+                statement.execute("set plan_cache_mode = force_generic_plan");
+                statement.execute("prepare planned as " + sql);
+                try (ResultSet rows = statement.executeQuery("explain execute planned" +
+                        (parameters > 0 ? "(" + nulls + ")" : ""))) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                } finally {
+                    statement.execute("deallocate planned");
+                    statement.execute("reset plan_cache_mode");
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.drainadoption.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingServiceTest {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private final PasswordHashingService hashing =
+            new PasswordHashingService(new BCryptPasswordEncoder(5), new SimpleMeterRegistry(), 5, 1, 4);
+
+    @AfterEach
+    void tearDown() {
+        hashing.destroy();
+    }
+
+    @Test
+    void hashAtTheConfiguredStrengthIsKept() {
+        assertThat(hashing.rehashIfOutdated(PASSWORD, new BCryptPasswordEncoder(5).encode(PASSWORD))).isEmpty();
+    }
+
+    @Test
+    void weakerHashIsUpgraded() {
+        assertThat(hashing.rehashIfOutdated(PASSWORD, new BCryptPasswordEncoder(4).encode(PASSWORD)))
+                .hasValueSatisfying(rehashed -> assertThat(rehashed).startsWith("$2a$05$"));
+    }
+
+    @Test
+    void strongerHashIsBroughtDownToTheConfiguredStrength() {
+        assertThat(hashing.rehashIfOutdated(PASSWORD, new BCryptPasswordEncoder(6).encode(PASSWORD)))
+                .hasValueSatisfying(rehashed -> {
+                    assertThat(rehashed).startsWith("$2a$05$");
+                    assertThat(hashing.matches(PASSWORD, rehashed)).isTrue();
+                });
+        assertThat(hashing.stats().getRehashed()).isEqualTo(1);
+    }
+}
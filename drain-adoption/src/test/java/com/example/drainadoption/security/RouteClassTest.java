@@ -0,0 +1,83 @@
+package com.example.drainadoption.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteClassTest {
+
+    @Test
+    void importsAreAdminWhateverTheMethod() {
+        assertThat(RouteClass.of(request("POST", "/api/drains/imports"))).isEqualTo(RouteClass.ADMIN);
+        assertThat(RouteClass.of(request("GET", "/api/drains/imports/nightly"))).isEqualTo(RouteClass.ADMIN);
+    }
+
+    @Test
+    void exportsStreamsAndUnpagedListsAreBulk() {
+        assertThat(RouteClass.of(request("GET", "/api/drains/export"))).isEqualTo(RouteClass.EXPORT);
+        assertThat(RouteClass.of(request("GET", "/api/drains/export", "format", "geojson")))
+                .isEqualTo(RouteClass.EXPORT);
+        assertThat(RouteClass.of(request("GET", "/api/notifications/stream"))).isEqualTo(RouteClass.BULK_READ);
+        assertThat(RouteClass.of(request("HEAD", "/api/users"))).isEqualTo(RouteClass.BULK_READ);
+        assertThat(RouteClass.of(request("GET", "/api/notifications"))).isEqualTo(RouteClass.BULK_READ);
+
+        // What the frontend loads on every page view never waits behind an export
+        assertThat(RouteClass.of(request("GET", "/api/drains"))).isEqualTo(RouteClass.PUBLIC_READ);
+        assertThat(RouteClass.of(request("GET", "/api/drains/7/comments"))).isEqualTo(RouteClass.PUBLIC_READ);
+    }
+
+    @Test
+    void pagedAndBoundedReadsKeepTheirClass() {
+        assertThat(RouteClass.of(request("GET", "/api/drains", "bbox", "47.5,-122.4,47.6,-122.3")))
+                .isEqualTo(RouteClass.PUBLIC_READ);
+        assertThat(RouteClass.of(request("GET", "/api/drains", "limit", "50"))).isEqualTo(RouteClass.PUBLIC_READ);
+        assertThat(RouteClass.of(request("GET", "/api/drains/7/comments", "cursor", "abc")))
+                .isEqualTo(RouteClass.PUBLIC_READ);
+        assertThat(RouteClass.of(request("GET", "/api/drains/7"))).isEqualTo(RouteClass.PUBLIC_READ);
+        assertThat(RouteClass.of(request("GET", "/api/notifications", "type", "DRAIN_ADOPTED")))
+                .isEqualTo(RouteClass.ADMIN);
+    }
+
+    @Test
+    void writesAreUnchanged() {
+        assertThat(RouteClass.of(request("POST", "/api/drains/7/adopt"))).isEqualTo(RouteClass.ADOPTER_WRITE);
+        assertThat(RouteClass.of(request("POST", "/api/drains/7/comments"))).isEqualTo(RouteClass.ADOPTER_WRITE);
+        assertThat(RouteClass.of(request("DELETE", "/api/drains/7"))).isEqualTo(RouteClass.ADMIN);
+        assertThat(RouteClass.of(request("POST", "/api/auth/login"))).isEqualTo(RouteClass.AUTH);
+    }
+
+    @Test
+    void fixedLimitsIgnoreLatency() {
+        for (RouteClass routeClass : new RouteClass[] {RouteClass.EXPORT, RouteClass.BULK_READ}) {
+            AimdLimiter limiter = new AimdLimiter(routeClass);
+            for (int i = 0; i < routeClass.getInitialLimit(); i++) {
+                assertThat(limiter.tryAcquire()).isTrue();
+            }
+            assertThat(limiter.tryAcquire()).isFalse();
+
+            // A minute-long export releases without shrinking the limit
+            limiter.release(System.nanoTime() - 60_000_000_000L);
+            assertThat(limiter.stats().getLimit()).isEqualTo(routeClass.getInitialLimit());
+            assertThat(limiter.stats().getBackoffs()).isZero();
+        }
+    }
+
+    @Test
+    void exportsDoNotTakePermitsFromOtherReads() {
+        AimdLimiter exports = new AimdLimiter(RouteClass.EXPORT);
+        while (exports.tryAcquire()) {
+            // Every export permit held
+        }
+        assertThat(new AimdLimiter(RouteClass.PUBLIC_READ).tryAcquire()).isTrue();
+        assertThat(new AimdLimiter(RouteClass.BULK_READ).tryAcquire()).isTrue();
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String... parameters) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        for (int i = 0; i < parameters.length; i += 2) {
+            request.setParameter(parameters[i], parameters[i + 1]);
+        }
+        return request;
+    }
+}
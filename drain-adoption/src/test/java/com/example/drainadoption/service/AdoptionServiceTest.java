@@ -0,0 +1,66 @@
+package com.example.drainadoption.service;
+
+import com.example.drainadoption.dto.DrainDTO;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.User;
+import com.example.drainadoption.repository.DrainRepository;
+import com.example.drainadoption.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The adopted drain comes back with the version the claim wrote, even when the
+ * cached snapshot it started from is behind the row.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AdoptionServiceTest {
+
+    @Autowired
+    private AdoptionService adoptionService;
+
+    @Autowired
+    private DrainCache drainCache;
+
+    @Autowired
+    private DrainRepository drainRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void adoptedDrainCarriesThePostClaimVersion() {
+        Drain drain = new Drain();
+        drain.setName("Versioned drain");
+        drain.setLatitude(47.6);
+        drain.setLongitude(-122.3);
+        Long drainId = drainRepository.save(drain).getId();
+        User user = new User();
+        user.setName("Versioned adopter");
+        user.setEmail("versioned-adopter@example.com");
+        user.setPassword("unused");
+        user.setRole(User.UserRole.ADOPTER);
+        Long userId = userRepository.save(user).getId();
+
+        // Cache the drain, then move the row on behind the cache's back
+        assertThat(drainCache.find(drainId)).hasValueSatisfying(cached -> assertThat(cached.getVersion()).isZero());
+        transactionTemplate.executeWithoutResult(status ->
+                drainRepository.updateDetails(List.of(drainId), "Renamed drain", null));
+
+        DrainDTO adopted = adoptionService.adopt(drainId, userId);
+
+        assertThat(adopted.getAdoptedByUserId()).isEqualTo(userId);
+        assertThat(adopted.getVersion()).isEqualTo(2L)
+                .isEqualTo(drainRepository.findVersionById(drainId).orElseThrow());
+    }
+}
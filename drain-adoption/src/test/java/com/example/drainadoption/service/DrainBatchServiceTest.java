@@ -0,0 +1,74 @@
+package com.example.drainadoption.service;
+
+import com.example.drainadoption.dto.DrainBatchResultDTO;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.repository.DrainRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+/**
+ * A batch spanning several chunks is applied in full or not at all.
+ */
+@SpringBootTest(properties = "drains.batch.chunk-size=2")
+@ActiveProfiles("test")
+class DrainBatchServiceTest {
+
+    @Autowired
+    private DrainBatchService drainBatchService;
+
+    @SpyBean
+    private DrainRepository drainRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Drain drain = new Drain();
+            drain.setName("Batch drain " + i);
+            drain.setLatitude(47.6);
+            drain.setLongitude(-122.3);
+            ids.add(drainRepository.save(drain).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        reset(drainRepository);
+        drainRepository.deleteAllById(ids);
+    }
+
+    @Test
+    void everyChunkIsApplied() {
+        DrainBatchResultDTO result = drainBatchService.updateDetails(ids, "Renamed", null);
+
+        assertThat(result).isEqualTo(new DrainBatchResultDTO(5, 5, 3));
+        assertThat(drainRepository.findAllById(ids)).extracting(Drain::getName).containsOnly("Renamed");
+    }
+
+    @Test
+    void aFailingChunkRollsBackTheEarlierOnes() {
+        // The second chunk fails after the first has been updated
+        doThrow(new IllegalStateException("Chunk failed"))
+                .when(drainRepository).findLocationsByIdIn(argThat(chunk -> chunk.contains(ids.get(2))));
+
+        assertThatThrownBy(() -> drainBatchService.updateDetails(ids, "Renamed", null))
+                .hasMessage("Chunk failed");
+        assertThat(drainRepository.findAllById(ids)).extracting(Drain::getName).doesNotContain("Renamed");
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.drainadoption.service;
+
+import com.example.drainadoption.dto.DrainImportDTO;
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.repository.DrainRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imported drains take their ids from the same sequence blocks as drains
+ * saved through Hibernate, so the two never collide.
+ */
+@SpringBootTest(properties = "drains.import.batch-size=120")
+@ActiveProfiles("test")
+class DrainImportIdsTest {
+
+    private static final int ROWS = 500;
+
+    @Autowired
+    private DrainImportService drainImportService;
+
+    @Autowired
+    private DrainRepository drainRepository;
+
+    @Test
+    void importedAndSavedDrainsGetDistinctIds() throws Exception {
+        Drain before = drainRepository.save(drain("Saved before"));
+
+        StringBuilder csv = new StringBuilder("name,latitude,longitude\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Imported ").append(i).append(",47.6,-122.3\n");
+        }
+        DrainImportDTO result = drainImportService.importDrains(null, DrainImportService.Format.CSV,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        Drain after = drainRepository.save(drain("Saved after"));
+
+        assertThat(result.getInserted()).isEqualTo(ROWS);
+        List<Drain> all = drainRepository.findAll();
+        assertThat(all).extracting(Drain::getId).doesNotHaveDuplicates().allMatch(id -> id > 0);
+        assertThat(all).extracting(Drain::getId).contains(before.getId(), after.getId());
+        assertThat(all).filteredOn(drain -> drain.getName() != null && drain.getName().startsWith("Imported")).hasSize(ROWS);
+    }
+
+    private static Drain drain(String name) {
+        Drain drain = new Drain();
+        drain.setName(name);
+        drain.setLatitude(47.6);
+        drain.setLongitude(-122.3);
+        return drain;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.drainadoption.service;
+
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.Geohash;
+import com.example.drainadoption.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DrainSpatialIndexTest {
+
+    private static final double CELL_SIZE = 0.01;
+
+    @Test
+    void nearestMatchesBruteForceOnRandomPoints() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            double centerLat = -60 + 120 * random.nextDouble();
+            double centerLon = -170 + 340 * random.nextDouble();
+            List<Drain> drains = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                drains.add(drain(i + 1, centerLat + 0.2 * random.nextGaussian(),
+                        centerLon + 0.2 * random.nextGaussian(), random.nextInt(4) == 0));
+            }
+            DrainSpatialIndex index = index(drains);
+            for (int q = 0; q < 20; q++) {
+                double lat = centerLat + 0.3 * random.nextGaussian();
+                double lon = centerLon + 0.3 * random.nextGaussian();
+                assertMatchesBruteForce(index, drains, lat, lon, 1 + random.nextInt(10), random.nextBoolean());
+            }
+        }
+    }
+
+    @Test
+    void nearestMatchesBruteForceAtHighLatitudes() {
+        Random random = new Random(7);
+        for (double centerLat : new double[] {70, 80, 85, 89, -75, -88}) {
+            List<Drain> drains = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                drains.add(drain(i + 1, Math.max(-90, Math.min(90, centerLat + 0.5 * random.nextGaussian())),
+                        30 + 2 * random.nextGaussian(), false));
+            }
+            DrainSpatialIndex index = index(drains);
+            for (int q = 0; q < 50; q++) {
+                double lat = Math.max(-90, Math.min(90, centerLat + 0.5 * random.nextGaussian()));
+                assertMatchesBruteForce(index, drains, lat, 30 + 2 * random.nextGaussian(), 1 + random.nextInt(5), false);
+            }
+        }
+    }
+
+    @Test
+    void nearestMatchesBruteForceNearCellEdges() {
+        Random random = new Random(3);
+        for (double baseLat : new double[] {0.5, 47.6, 65.3}) {
+            List<Drain> drains = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                drains.add(drain(i + 1, onCellEdge(baseLat, random), onCellEdge(-122.3, random), false));
+            }
+            DrainSpatialIndex index = index(drains);
+            for (int q = 0; q < 200; q++) {
+                assertMatchesBruteForce(index, drains, onCellEdge(baseLat, random), onCellEdge(-122.3, random),
+                        1 + random.nextInt(3), false);
+            }
+        }
+    }
+
+    @Test
+    void nearerDrainJustOutsideTheSearchedRingsWins() {
+        // The query sits on the top edge of its cell. Drain 1, one ring below,
+        // and drain 2, two rings above, are both about 1.113 km away, drain 2
+        // slightly closer; a clearance bound at 111.32 km per degree stops
+        // the search after the first ring
+        double lat = 0.00999;
+        double lon = 0.005;
+        DrainSpatialIndex index = index(List.of(
+                drain(1, -0.0000205, lon, false),
+                drain(2, 0.0200001, lon, false)));
+
+        assertThat(index.findNearest(lat, lon, 1, false)).containsExactly(2L);
+    }
+
+    private static void assertMatchesBruteForce(DrainSpatialIndex index, List<Drain> drains, double lat, double lon,
+                                                int k, boolean unadoptedOnly) {
+        List<Long> expected = drains.stream()
+                .filter(drain -> !unadoptedOnly || drain.getAdoptedByUser() == null)
+                .sorted(Comparator.comparingDouble(drain -> distance(drain, lat, lon)))
+                .limit(k)
+                .map(Drain::getId)
+                .toList();
+        List<Long> actual = index.findNearest(lat, lon, k, unadoptedOnly);
+
+        // Compare distances rather than ids, so exact ties in either order pass
+        assertThat(actual.stream().map(id -> distance(drains.get((int) (id - 1)), lat, lon)).toList())
+                .as("%d nearest to %f,%f", k, lat, lon)
+                .containsExactlyElementsOf(expected.stream()
+                        .map(id -> distance(drains.get((int) (id - 1)), lat, lon)).toList());
+    }
+
+    // A coordinate within a hair of a cell boundary, on either side
+    private static double onCellEdge(double around, Random random) {
+        double edge = (Math.floor(around / CELL_SIZE) + random.nextInt(20) - 10) * CELL_SIZE;
+        return edge + (random.nextDouble() - 0.5) * 1e-4;
+    }
+
+    private static double distance(Drain drain, double lat, double lon) {
+        return Geohash.distanceKm(lat, lon, drain.getLatitude(), drain.getLongitude());
+    }
+
+    private static DrainSpatialIndex index(List<Drain> drains) {
+        DrainSpatialIndex index = new DrainSpatialIndex(CELL_SIZE);
+        drains.forEach(index::drainSaved);
+        return index;
+    }
+
+    private static Drain drain(long id, double lat, double lon, boolean adopted) {
+        Drain drain = new Drain();
+        drain.setId(id);
+        drain.setLatitude(lat);
+        drain.setLongitude(lon);
+        if (adopted) {
+            User adopter = new User();
+            adopter.setId(id);
+            drain.setAdoptedByUser(adopter);
+        }
+        return drain;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.drainadoption.service;
+
+import com.example.drainadoption.model.Drain;
+import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.model.Notification.NotificationType;
+import com.example.drainadoption.repository.DrainRepository;
+import com.example.drainadoption.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A notification commits or rolls back with the change it reports, waits in
+ * the outbox until it is relayed, and listeners only hear of relayed ones. The
+ * relay worker is not started, so each test relays when it chooses, and the
+ * database is the test's own, so no other context's worker relays it either.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:notification-writer;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "notifications.outbox.relay.auto-startup=false",
+        "notifications.outbox.batch-size=2",
+        "notifications.outbox.max-depth=3"})
+@ActiveProfiles("test")
+class NotificationWriterTest {
+
+    @TestConfiguration
+    static class RecordingListenerConfig {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener implements NotificationChangeListener {
+
+        final List<Notification> created = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void notificationsCreated(List<Notification> notifications) {
+            created.addAll(notifications);
+        }
+
+        @Override
+        public void notificationsRead(long count) {
+        }
+    }
+
+    @Autowired
+    private NotificationWriter notificationWriter;
+
+    @Autowired
+    private NotificationRelay notificationRelay;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DrainRepository drainRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private RecordingListener listener;
+
+    private Long drainId;
+
+    @BeforeEach
+    void setUp() {
+        Drain drain = new Drain();
+        drain.setName("Outbox drain");
+        drain.setLatitude(47.6);
+        drain.setLongitude(-122.3);
+        drainId = drainRepository.save(drain).getId();
+        notificationRelay.relayPending();
+        listener.created.clear();
+    }
+
+    @Test
+    void committedNotificationWaitsInTheOutboxUntilRelayed() {
+        long before = notificationRepository.count();
+
+        write("Committed");
+
+        assertThat(outboxDepth()).isEqualTo(1);
+        assertThat(notificationRepository.count()).isEqualTo(before);
+        assertThat(listener.created).isEmpty();
+
+        assertThat(notificationRelay.relayPending()).isEqualTo(1);
+
+        assertThat(outboxDepth()).isZero();
+        assertThat(notificationWriter.stats().getDepth()).isZero();
+        assertThat(listener.created).singleElement().satisfies(published -> {
+            assertThat(published.getMessage()).isEqualTo("Committed");
+            assertThat(notificationRepository.findById(published.getId()))
+                    .hasValueSatisfying(stored -> assertThat(stored.getRead()).isFalse());
+        });
+    }
+
+    @Test
+    void rolledBackNotificationIsNeitherStoredNorPublished() {
+        long before = notificationRepository.count();
+        long rolledBack = notificationWriter.stats().getRolledBack();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationWriter.write(NotificationType.COMMENT_ADDED, "Rolled back", drainId, null);
+            status.setRollbackOnly();
+        });
+
+        assertThat(notificationRelay.relayPending()).isZero();
+        assertThat(notificationRepository.count()).isEqualTo(before);
+        assertThat(listener.created).isEmpty();
+        assertThat(notificationWriter.stats().getRolledBack()).isEqualTo(rolledBack + 1);
+    }
+
+    @Test
+    void fullOutboxMakesTheWriterInsertItself() {
+        long batches = notificationWriter.stats().getBatches();
+        long writtenDirectly = notificationWriter.stats().getWrittenDirectly();
+        for (int i = 0; i < 3; i++) {
+            write("Queued " + i);
+        }
+        assertThat(listener.created).isEmpty();
+
+        write("Direct");
+
+        assertThat(outboxDepth()).isEqualTo(3);
+        assertThat(notificationWriter.stats().getWrittenDirectly()).isEqualTo(writtenDirectly + 1);
+        assertThat(listener.created).singleElement().satisfies(published ->
+                assertThat(notificationRepository.findById(published.getId())).isPresent());
+
+        // Two batches of two and one, the ids kept from the outbox
+        assertThat(notificationRelay.relayPending()).isEqualTo(3);
+        assertThat(notificationWriter.stats().getBatches()).isEqualTo(batches + 2);
+        assertThat(listener.created).extracting(Notification::getMessage)
+                .containsExactly("Direct", "Queued 0", "Queued 1", "Queued 2");
+        assertThat(listener.created).extracting(Notification::getId).doesNotHaveDuplicates()
+                .allSatisfy(id -> assertThat(notificationRepository.findById(id)).isPresent());
+    }
+
+    @Test
+    void deletingTheDrainDropsItsPendingNotifications() {
+        write("Orphaned");
+
+        drainRepository.deleteById(drainId);
+
+        assertThat(outboxDepth()).isZero();
+        assertThat(notificationRelay.relayPending()).isZero();
+        assertThat(listener.created).isEmpty();
+    }
+
+    @Test
+    void writingOutsideATransactionIsRejected() {
+        assertThatThrownBy(() -> notificationWriter.write(NotificationType.COMMENT_ADDED, "Loose", drainId, null))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(listener.created).isEmpty();
+    }
+
+    private void write(String message) {
+        transactionTemplate.executeWithoutResult(status ->
+                notificationWriter.write(NotificationType.DRAIN_ADOPTED, message, drainId, null));
+    }
+
+    private long outboxDepth() {
+        return jdbcTemplate.queryForObject("select count(*) from notification_outbox", Long.class);
+    }
+}
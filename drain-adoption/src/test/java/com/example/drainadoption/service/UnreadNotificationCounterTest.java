@@ -0,0 +1,53 @@
+package com.example.drainadoption.service;
+
+import com.example.drainadoption.model.Notification;
+import com.example.drainadoption.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UnreadNotificationCounterTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final UnreadNotificationCounter counter = new UnreadNotificationCounter(notificationRepository);
+
+    @Test
+    void firstReadTakesTheDatabaseCount() {
+        when(notificationRepository.countByReadFalse()).thenReturn(7L);
+
+        assertThat(counter.current()).isEqualTo(7);
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        when(notificationRepository.countByReadFalse()).thenReturn(3L);
+        counter.reconcile();
+        counter.notificationsCreated(List.of(new Notification(), new Notification()));
+
+        // Two rows went away without passing the publisher
+        when(notificationRepository.countByReadFalse()).thenReturn(3L);
+        counter.reconcile();
+
+        assertThat(counter.current()).isEqualTo(3);
+    }
+
+    @Test
+    void reconcileKeepsAdjustmentsMadeWhileItsQueryRuns() {
+        when(notificationRepository.countByReadFalse()).thenReturn(10L);
+        counter.reconcile();
+
+        // The query's snapshot predates one new notification and one mark-read of 4
+        when(notificationRepository.countByReadFalse()).thenAnswer(invocation -> {
+            counter.notificationsCreated(List.of(new Notification()));
+            counter.notificationsRead(4);
+            return 10L;
+        });
+        counter.reconcile();
+
+        assertThat(counter.current()).isEqualTo(7);
+    }
+}